@@ -17,6 +17,8 @@ public class SecurityConfig {
         http
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.GET, "/api/photos/**").permitAll()
+                        // The export dumps the whole index, reviewer names included.
+                        .requestMatchers(HttpMethod.GET, "/api/restaurants/export").authenticated()
                         .requestMatchers(HttpMethod.GET, "/api/restaurants/**").permitAll()
                         .anyRequest().authenticated()
                 )
@@ -0,0 +1,61 @@
+package com.example.restaurant.controllers;
+
+import com.example.restaurant.exceptions.InvalidCursorException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Turns {@code search_after} sort values into URL-safe cursors and back.
+ * Cursors are base64url-encoded JSON so clients treat them as opaque; an
+ * empty cursor starts from the first page. Each cursor carries a fingerprint
+ * of the search that issued it (its sort and filters), so sort values are
+ * never replayed against a search they were not produced by.
+ */
+@Component
+@RequiredArgsConstructor
+class CursorCodec {
+    private final ObjectMapper objectMapper;
+
+    String encode(List<Object> searchAfter, String shape) {
+        if (searchAfter == null) {
+            return null;
+        }
+        try {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(objectMapper.writeValueAsBytes(new Cursor(fingerprint(shape), searchAfter)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Sort values cannot be encoded as a cursor", e);
+        }
+    }
+
+    List<Object> decode(String cursor, String shape) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        Cursor decoded;
+        try {
+            decoded = objectMapper.readValue(Base64.getUrlDecoder().decode(cursor.trim()), Cursor.class);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new InvalidCursorException("Malformed cursor", e);
+        }
+        if (decoded == null || decoded.after() == null || decoded.after().isEmpty()) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+        if (!fingerprint(shape).equals(decoded.shape())) {
+            throw new InvalidCursorException("Cursor was issued for a different sort or filters");
+        }
+        return decoded.after();
+    }
+
+    private static String fingerprint(String shape) {
+        return Integer.toHexString(shape.hashCode());
+    }
+
+    private record Cursor(String shape, List<Object> after) {
+    }
+}
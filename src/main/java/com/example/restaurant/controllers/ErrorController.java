@@ -2,10 +2,14 @@ package com.example.restaurant.controllers;
 
 import com.example.restaurant.domain.dtos.ErrorDto;
 import com.example.restaurant.exceptions.BaseException;
+import com.example.restaurant.exceptions.InvalidCursorException;
+import com.example.restaurant.exceptions.PhotoTooLargeException;
 import com.example.restaurant.exceptions.RestaurantNotFoundException;
 import com.example.restaurant.exceptions.ReviewNotAllowedException;
 import com.example.restaurant.exceptions.StorageException;
+import com.example.restaurant.exceptions.UnsupportedPhotoTypeException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -75,6 +79,16 @@ public class ErrorController {
         return new ResponseEntity<>(errorDto, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorDto> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        log.warn("Caught OptimisticLockingFailureException", ex);
+        ErrorDto error = ErrorDto.builder()
+                .status(HttpStatus.CONFLICT.value())
+                .message("The resource was modified concurrently, please retry")
+                .build();
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(ReviewNotAllowedException.class)
     public ResponseEntity<ErrorDto> handleRestaurantReviewNotAllowedException(ReviewNotAllowedException ex) {
         log.error("Caught ReviewNotAllowedException exception", ex);
@@ -84,4 +98,34 @@ public class ErrorController {
                 .build();
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(PhotoTooLargeException.class)
+    public ResponseEntity<ErrorDto> handlePhotoTooLargeException(PhotoTooLargeException ex) {
+        log.warn("Caught PhotoTooLargeException: {}", ex.getMessage());
+        ErrorDto error = ErrorDto.builder()
+                .status(HttpStatus.PAYLOAD_TOO_LARGE.value())
+                .message(ex.getMessage())
+                .build();
+        return new ResponseEntity<>(error, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    @ExceptionHandler(UnsupportedPhotoTypeException.class)
+    public ResponseEntity<ErrorDto> handleUnsupportedPhotoTypeException(UnsupportedPhotoTypeException ex) {
+        log.warn("Caught UnsupportedPhotoTypeException: {}", ex.getMessage());
+        ErrorDto error = ErrorDto.builder()
+                .status(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value())
+                .message(ex.getMessage())
+                .build();
+        return new ResponseEntity<>(error, HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorDto> handleInvalidCursorException(InvalidCursorException ex) {
+        log.warn("Caught InvalidCursorException: {}", ex.getMessage());
+        ErrorDto error = ErrorDto.builder()
+                .status(HttpStatus.BAD_REQUEST.value())
+                .message("The cursor is not valid, restart with an empty cursor")
+                .build();
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
 }
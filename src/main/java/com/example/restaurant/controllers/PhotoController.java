@@ -1,24 +1,29 @@
 package com.example.restaurant.controllers;
 
+import com.example.restaurant.domain.PhotoResource;
 import com.example.restaurant.domain.dtos.PhotoDto;
+import com.example.restaurant.domain.dtos.PhotoUploadResultDto;
 import com.example.restaurant.domain.entities.Photo;
 import com.example.restaurant.mappers.PhotoMapper;
 import com.example.restaurant.services.PhotoService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.http.MediaTypeFactory;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/photos")
 public class PhotoController {
     private final PhotoService photoService;
     private final PhotoMapper photoMapper;
+    private final PhotoResponseWriter photoResponseWriter;
 
     @PostMapping
     public PhotoDto uploadPhoto(@RequestParam("file") MultipartFile file) {
@@ -26,14 +31,35 @@ public class PhotoController {
         return photoMapper.toDto(savedPhoto);
     }
 
+    @PostMapping(consumes = {
+            MediaType.IMAGE_JPEG_VALUE,
+            MediaType.IMAGE_PNG_VALUE,
+            MediaType.IMAGE_GIF_VALUE,
+            "image/webp",
+            MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public PhotoDto uploadPhotoStream(HttpServletRequest request) throws IOException {
+        Photo savedPhoto = photoService.uploadPhoto(request.getInputStream(), request.getContentLengthLong());
+        return photoMapper.toDto(savedPhoto);
+    }
+
+    @PostMapping("/batch")
+    public List<PhotoUploadResultDto> uploadPhotos(@RequestParam("files") List<MultipartFile> files) {
+        return photoService.uploadPhotos(files).stream()
+                .map(photoMapper::toDto)
+                .toList();
+    }
+
     @GetMapping("/{id:.+}")
-    public ResponseEntity<Resource> getPhoto(@PathVariable String id) {
-        return photoService.getPhotoAsResource(id).map(photo ->
-                ResponseEntity.ok()
-                        .contentType(MediaTypeFactory.getMediaType(photo)
-                                .orElse(MediaType.APPLICATION_OCTET_STREAM))
-                        .header(HttpHeaders.CONTENT_DISPOSITION, "inline")
-                        .body(photo)
-        ).orElse(ResponseEntity.notFound().build());
+    public void getPhoto(
+            @PathVariable String id,
+            @RequestParam(name = "w", required = false) Integer width,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Optional<PhotoResource> photo = photoService.getPhotoAsResource(id, width);
+        if (photo.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        photoResponseWriter.write(photo.get(), request, response);
     }
 }
@@ -1,25 +1,48 @@
 package com.example.restaurant.controllers;
 
+import com.example.restaurant.domain.HitCount;
 import com.example.restaurant.domain.RestaurantCreateUpdateRequest;
+import com.example.restaurant.domain.RestaurantSearchCriteria;
+import com.example.restaurant.domain.RestaurantSearchResult;
+import com.example.restaurant.domain.SearchSlice;
+import com.example.restaurant.domain.dtos.CursorPage;
 import com.example.restaurant.domain.dtos.RestaurantCreateUpdateRequestDto;
 import com.example.restaurant.domain.dtos.RestaurantDto;
+import com.example.restaurant.domain.dtos.RestaurantImportResultDto;
+import com.example.restaurant.domain.dtos.RestaurantPatchRequestDto;
+import com.example.restaurant.domain.dtos.RestaurantSearchRequestDto;
+import com.example.restaurant.domain.dtos.RestaurantSuggestionDto;
 import com.example.restaurant.domain.dtos.RestaurantSummaryDto;
+import com.example.restaurant.domain.dtos.SearchResultPage;
 import com.example.restaurant.domain.entities.Restaurant;
 import com.example.restaurant.mappers.RestaurantMapper;
+import com.example.restaurant.services.RestaurantExportService;
+import com.example.restaurant.services.RestaurantImportService;
 import com.example.restaurant.services.RestaurantService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchPage;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.List;
+
 @RestController
 @RequestMapping(path = "/api/restaurants")
 @RequiredArgsConstructor
 public class RestaurantController {
     private final RestaurantService restaurantService;
     private final RestaurantMapper restaurantMapper;
+    private final RestaurantImportService restaurantImportService;
+    private final RestaurantExportService restaurantExportService;
+    private final CursorCodec cursorCodec;
 
     @PostMapping
     public ResponseEntity<RestaurantDto> createRestaurant(
@@ -32,24 +55,83 @@ public class RestaurantController {
         return ResponseEntity.ok(createdRestaurantDto);
     }
 
+    @PostMapping(path = "/import", consumes = "application/x-ndjson")
+    public RestaurantImportResultDto importRestaurants(HttpServletRequest request) throws IOException {
+        return restaurantMapper.toImportResultDto(
+                restaurantImportService.importRestaurants(request.getInputStream()));
+    }
+
+    @GetMapping("/export")
+    public void exportRestaurants(
+            @RequestParam(defaultValue = "true") boolean reviews,
+            HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"restaurants.ndjson\"");
+        restaurantExportService.exportRestaurants(response.getOutputStream(), reviews);
+    }
+
     @GetMapping
-    public Page<RestaurantSummaryDto> searchRestaurants(
-            @RequestParam(required = false) String q,
-            @RequestParam(required = false) Float minRating,
-            @RequestParam(required = false) Float latitude,
-            @RequestParam(required = false) Float longitude,
-            @RequestParam(required = false) Float radius,
-            @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int size) {
-        Page<Restaurant> searchResult = restaurantService.searchRestaurants(
-                q,
-                minRating,
-                latitude,
-                longitude,
-                radius,
-                PageRequest.of(page - 1, size)
+    public SearchResultPage<RestaurantSummaryDto> searchRestaurants(
+            @ModelAttribute RestaurantSearchRequestDto request) {
+        RestaurantSearchCriteria criteria = restaurantMapper.toSearchCriteria(request);
+        RestaurantSearchResult searchResult = restaurantService.searchRestaurants(
+                criteria,
+                PageRequest.of(request.getPage() - 1, request.getSize())
         );
-        return searchResult.map(restaurantMapper::toSummaryDto);
+        SearchPage<Restaurant> hits = searchResult.getPage();
+        TotalHitsRelation relation = hits.getSearchHits().getTotalHitsRelation();
+        boolean counted = request.getCount() != HitCount.NONE && relation != TotalHitsRelation.OFF;
+        return SearchResultPage.<RestaurantSummaryDto>builder()
+                .content(hits.getContent().stream()
+                        .map(hit -> restaurantMapper.toSummaryDto(hit, criteria.hasLocation()))
+                        .toList())
+                .page(request.getPage())
+                .size(request.getSize())
+                .hasNext(hits.hasNext())
+                .totalElements(counted ? hits.getTotalElements() : null)
+                .totalRelation(counted ? (relation == TotalHitsRelation.EQUAL_TO ? "eq" : "gte") : null)
+                .facets(request.isFacets() ? restaurantMapper.toFacetDtos(searchResult.getFacets()) : null)
+                .build();
+    }
+
+    @GetMapping(params = "cursor")
+    public CursorPage<RestaurantSummaryDto> searchRestaurantsByCursor(
+            @ModelAttribute RestaurantSearchRequestDto request) {
+        RestaurantSearchCriteria criteria = restaurantMapper.toSearchCriteria(request);
+        String shape = cursorShape(criteria);
+        SearchSlice<SearchHit<Restaurant>> slice = restaurantService.searchRestaurants(
+                criteria,
+                cursorCodec.decode(request.getCursor(), shape),
+                request.getSize()
+        );
+        return CursorPage.<RestaurantSummaryDto>builder()
+                .content(slice.getContent().stream()
+                        .map(hit -> restaurantMapper.toSummaryDto(hit, criteria.hasLocation()))
+                        .toList())
+                .nextCursor(cursorCodec.encode(slice.getNextSearchAfter(), shape))
+                .build();
+    }
+
+    /**
+     * Everything that decides which restaurants match and how they sort, so a
+     * cursor only continues the search that issued it.
+     */
+    private static String cursorShape(RestaurantSearchCriteria criteria) {
+        return String.join("|", "restaurants",
+                String.valueOf(criteria.getQuery()), String.valueOf(criteria.getMinRating()),
+                String.valueOf(criteria.getLatitude()), String.valueOf(criteria.getLongitude()),
+                String.valueOf(criteria.getRadius()), String.valueOf(criteria.getCuisine()),
+                String.valueOf(criteria.getCity()), String.valueOf(criteria.getOpenAt()),
+                String.valueOf(criteria.isOpenNow()));
+    }
+
+    @GetMapping("/suggest")
+    public List<RestaurantSuggestionDto> suggestRestaurants(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int size) {
+        return restaurantService.suggestRestaurants(q, size).stream()
+                .map(restaurantMapper::toSuggestionDto)
+                .toList();
     }
 
     @GetMapping("/{restaurantId}")
@@ -72,6 +154,19 @@ public class RestaurantController {
         return ResponseEntity.ok(restaurantMapper.toRestaurantDto(updated));
     }
 
+    @PatchMapping("/{restaurantId}")
+    public ResponseEntity<RestaurantDto> patchRestaurant(
+            @PathVariable String restaurantId,
+            @Valid @RequestBody RestaurantPatchRequestDto requestDto) {
+
+        RestaurantCreateUpdateRequest changes =
+                restaurantMapper.toRestaurantCreateUpdateRequest(requestDto);
+
+        Restaurant patched = restaurantService.patchRestaurant(restaurantId, changes);
+
+        return ResponseEntity.ok(restaurantMapper.toRestaurantDto(patched));
+    }
+
     @DeleteMapping("/{restaurantId}")
     public ResponseEntity<Void> deleteRestaurant(@PathVariable String restaurantId) {
         restaurantService.deleteRestaurant(restaurantId);
@@ -1,8 +1,11 @@
 package com.example.restaurant.controllers;
 
 import com.example.restaurant.domain.ReviewCreateUpdateRequest;
+import com.example.restaurant.domain.SearchSlice;
+import com.example.restaurant.domain.dtos.CursorPage;
 import com.example.restaurant.domain.dtos.ReviewCreateUpdateRequestDto;
 import com.example.restaurant.domain.dtos.ReviewDto;
+import com.example.restaurant.domain.dtos.ReviewPatchRequestDto;
 import com.example.restaurant.domain.entities.Review;
 import com.example.restaurant.domain.entities.User;
 import com.example.restaurant.mappers.ReviewMapper;
@@ -25,6 +28,7 @@ public class ReviewController {
 
     private final ReviewService reviewService;
     private final ReviewMapper reviewMapper;
+    private final CursorCodec cursorCodec;
 
     @PostMapping
     public ResponseEntity<ReviewDto> createReview(
@@ -61,6 +65,20 @@ public class ReviewController {
                 .map(reviewMapper::toDto);
     }
 
+    @GetMapping(params = "cursor")
+    public CursorPage<ReviewDto> listReviewsByCursor(
+            @PathVariable String restaurantId,
+            @RequestParam String cursor,
+            @PageableDefault(size = 20, page = 0, sort = "datePosted", direction = Sort.Direction.DESC)
+            Pageable pageable) {
+        String shape = "reviews|" + restaurantId + "|" + pageable.getSort();
+        SearchSlice<Review> slice = reviewService.listReviews(restaurantId, cursorCodec.decode(cursor, shape), pageable);
+        return CursorPage.<ReviewDto>builder()
+                .content(slice.getContent().stream().map(reviewMapper::toDto).toList())
+                .nextCursor(cursorCodec.encode(slice.getNextSearchAfter(), shape))
+                .build();
+    }
+
     @GetMapping("/{reviewId}")
     public ResponseEntity<ReviewDto> getRestaurantReview(
             @PathVariable String restaurantId,
@@ -93,6 +111,24 @@ public class ReviewController {
         return ResponseEntity.ok(reviewMapper.toDto(updatedReview));
     }
 
+    @PatchMapping("/{reviewId}")
+    public ResponseEntity<ReviewDto> patchReview(
+            @PathVariable String restaurantId,
+            @PathVariable String reviewId,
+            @Valid @RequestBody ReviewPatchRequestDto review,
+            @AuthenticationPrincipal Jwt jwt) {
+
+        ReviewCreateUpdateRequest changes = reviewMapper.toReviewCreateUpdateRequest(review);
+
+        Review patchedReview = reviewService.patchReview(
+                jwtToUser(jwt),
+                restaurantId,
+                reviewId,
+                changes);
+
+        return ResponseEntity.ok(reviewMapper.toDto(patchedReview));
+    }
+
     @DeleteMapping("/{reviewId}")
     public ResponseEntity<Void> deleteReview(
             @PathVariable String restaurantId,
@@ -0,0 +1,13 @@
+package com.example.restaurant.domain;
+
+/**
+ * How precisely a search counts its total hits, from cheapest to dearest.
+ */
+public enum HitCount {
+    /** Counts just far enough to tell whether another page follows. */
+    NONE,
+    /** Counts exactly up to Elasticsearch's default threshold of 10,000 hits. */
+    APPROX,
+    /** Counts every match. */
+    EXACT
+}
@@ -0,0 +1,25 @@
+package com.example.restaurant.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.core.io.Resource;
+
+/**
+ * A stored photo picked for a request. {@code provisional} is set when the
+ * original stands in for a variant that is still being generated, so the
+ * response must not be cached for long. An original served because no variant
+ * will ever exist is not provisional. {@code contentHash} is the SHA-256 of
+ * the served file when the storage backend records one, and {@code null}
+ * otherwise.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PhotoResource {
+    private Resource resource;
+    private boolean provisional;
+    private String contentHash;
+}
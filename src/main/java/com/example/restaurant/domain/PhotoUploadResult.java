@@ -0,0 +1,21 @@
+package com.example.restaurant.domain;
+
+import com.example.restaurant.domain.entities.Photo;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one file in a batch upload: either the stored {@code photo} or
+ * the {@code error} that prevented it from being stored.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PhotoUploadResult {
+    private String filename;
+    private Photo photo;
+    private String error;
+}
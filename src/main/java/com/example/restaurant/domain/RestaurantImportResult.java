@@ -0,0 +1,24 @@
+package com.example.restaurant.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summary of a bulk import. {@code errors} lists the rejected records with
+ * the lowest line numbers, in line order and capped, while {@code failed}
+ * counts every rejected record.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RestaurantImportResult {
+    private long imported;
+    private long failed;
+    @Builder.Default
+    private List<RestaurantImportError> errors = new ArrayList<>();
+}
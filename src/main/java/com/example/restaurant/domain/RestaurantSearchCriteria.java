@@ -0,0 +1,41 @@
+package com.example.restaurant.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class RestaurantSearchCriteria {
+    private String query;
+    private Float minRating;
+    private Float latitude;
+    private Float longitude;
+    private Float radius;
+    private String cuisine;
+    private String city;
+    private LocalDateTime openAt;
+    private boolean openNow;
+    private boolean facets;
+    private HitCount hitCount;
+
+    public boolean hasQuery() {
+        return query != null && !query.isBlank();
+    }
+
+    public boolean hasCuisine() {
+        return cuisine != null && !cuisine.isBlank();
+    }
+
+    public boolean hasCity() {
+        return city != null && !city.isBlank();
+    }
+
+    public boolean hasLocation() {
+        return latitude != null && longitude != null;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.restaurant.domain;
+
+import com.example.restaurant.domain.entities.Restaurant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.elasticsearch.core.SearchPage;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RestaurantSearchResult {
+    public static final String CUISINE_FACET = "cuisine";
+    public static final String RATING_FACET = "rating";
+    public static final String CITY_FACET = "city";
+
+    private SearchPage<Restaurant> page;
+    private Map<String, List<FacetBucket>> facets;
+}
@@ -0,0 +1,38 @@
+package com.example.restaurant.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One slice of a search paged with {@code search_after}. {@code nextSearchAfter}
+ * holds the sort values of the last hit and is {@code null} on the last slice.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchSlice<T> {
+    private List<T> content;
+    private List<Object> nextSearchAfter;
+
+    public boolean hasNext() {
+        return nextSearchAfter != null;
+    }
+
+    /**
+     * Builds a slice from a search that asked for {@code size + 1} hits; the
+     * extra hit only tells whether another slice follows and is dropped.
+     */
+    public static <E, T> SearchSlice<T> of(List<SearchHit<E>> hits, int size, Function<SearchHit<E>, T> content) {
+        List<SearchHit<E>> slice = hits.size() > size ? hits.subList(0, size) : hits;
+        return SearchSlice.<T>builder()
+                .content(slice.stream().map(content).toList())
+                .nextSearchAfter(hits.size() > size ? slice.get(size - 1).getSortValues() : null)
+                .build();
+    }
+}
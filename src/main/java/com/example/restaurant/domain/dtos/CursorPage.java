@@ -0,0 +1,21 @@
+package com.example.restaurant.domain.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * A page of results reached through an opaque cursor. Pass {@code nextCursor}
+ * back as {@code cursor} to fetch the following page; it is {@code null} on
+ * the last one.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPage<T> {
+    private List<T> content;
+    private String nextCursor;
+}
@@ -0,0 +1,16 @@
+package com.example.restaurant.domain.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PhotoUploadResultDto {
+    private String filename;
+    private PhotoDto photo;
+    private String error;
+}
@@ -2,7 +2,7 @@ package com.example.restaurant.domain.dtos;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.Size;
+import jakarta.validation.constraints.NotEmpty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -24,7 +24,7 @@ public class RestaurantCreateUpdateRequestDto {
     private AddressDto address;
     @Valid
     private OperatingHoursDto operatingHours;
-    @Size(min = 1, message = "At least one photo ID is required")
+    @NotEmpty(message = "At least one photo ID is required")
     private List<String> photoIds;
 
 }
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @AllArgsConstructor
@@ -21,7 +22,7 @@ public class RestaurantDto {
     private AddressDto address;
     private OperatingHoursDto operatingHours;
     private List<PhotoDto> photos = new ArrayList<>();
-    private List<ReviewDto> reviews = new ArrayList<>();
     private UserDto createdBy;
     private Integer totalReviews;
+    private Map<String, Integer> ratingHistogram;
 }
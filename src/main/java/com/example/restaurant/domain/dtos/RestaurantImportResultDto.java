@@ -0,0 +1,17 @@
+package com.example.restaurant.domain.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RestaurantImportResultDto {
+    private long imported;
+    private long failed;
+    private List<RestaurantImportErrorDto> errors;
+}
@@ -0,0 +1,33 @@
+package com.example.restaurant.domain.dtos;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * Partial restaurant update. Omitted fields keep their stored value; an
+ * address or operating hours, when given, replace the stored one whole.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RestaurantPatchRequestDto {
+    @Pattern(regexp = ".*\\S.*", message = "Restaurant name must not be blank")
+    private String name;
+    @Pattern(regexp = ".*\\S.*", message = "Cuisine type must not be blank")
+    private String cuisineType;
+    @Pattern(regexp = ".*\\S.*", message = "Contact information must not be blank")
+    private String contactInformation;
+    @Valid
+    private AddressDto address;
+    @Valid
+    private OperatingHoursDto operatingHours;
+    @Size(min = 1, message = "At least one photo ID is required")
+    private List<String> photoIds;
+}
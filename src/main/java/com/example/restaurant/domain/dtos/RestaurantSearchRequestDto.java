@@ -0,0 +1,32 @@
+package com.example.restaurant.domain.dtos;
+
+import com.example.restaurant.domain.HitCount;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import java.time.LocalDateTime;
+
+/**
+ * Query parameters of restaurant search. {@code cursor} switches to cursor
+ * paging; {@code count} only sets how precisely the total of a numbered page
+ * is reported.
+ */
+@Data
+@NoArgsConstructor
+public class RestaurantSearchRequestDto {
+    private String q;
+    private Float minRating;
+    private Float latitude;
+    private Float longitude;
+    private Float radius;
+    private String cuisine;
+    private String city;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime openAt;
+    private boolean openNow;
+    private boolean facets;
+    private HitCount count;
+    private String cursor;
+    private int page = 1;
+    private int size = 20;
+}
@@ -18,4 +18,5 @@ public class RestaurantSummaryDto {
     private Integer totalReviews;
     private AddressDto address;
     private List<PhotoDto> photos;
+    private Double distanceKm;
 }
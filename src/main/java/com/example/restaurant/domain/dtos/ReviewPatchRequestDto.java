@@ -0,0 +1,26 @@
+package com.example.restaurant.domain.dtos;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * Partial review update. Omitted fields keep their stored value.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewPatchRequestDto {
+    @Pattern(regexp = "(?s).*\\S.*", message = "Review content must not be blank")
+    private String content;
+    @Min(value = 1, message = "Rating must be between 1 and 5")
+    @Max(value = 5, message = "Rating must be between 1 and 5")
+    private Integer rating;
+    private List<String> photoIds;
+}
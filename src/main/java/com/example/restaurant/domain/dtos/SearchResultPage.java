@@ -0,0 +1,29 @@
+package com.example.restaurant.domain.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A numbered page of search results. {@code totalElements} is left out when
+ * hits were not counted and is a lower bound when {@code totalRelation} is
+ * {@code gte}; {@code facets} is only present when they were asked for.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SearchResultPage<T> {
+    private List<T> content;
+    private int page;
+    private int size;
+    private boolean hasNext;
+    private Long totalElements;
+    private String totalRelation;
+    private Map<String, List<FacetBucketDto>> facets;
+}
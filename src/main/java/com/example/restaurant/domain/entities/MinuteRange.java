@@ -0,0 +1,37 @@
+package com.example.restaurant.domain.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * A half-open span of minutes within the week, where 0 is Monday 00:00.
+ * Stored as an Elasticsearch {@code integer_range}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class MinuteRange {
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    public static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+
+    private Integer gte;
+    private Integer lt;
+
+    public static int minuteOfWeek(DayOfWeek day, LocalTime time) {
+        return (day.getValue() - 1) * MINUTES_PER_DAY + time.getHour() * 60 + time.getMinute();
+    }
+
+    public static int minuteOfWeek(LocalDateTime dateTime) {
+        return minuteOfWeek(dateTime.getDayOfWeek(), dateTime.toLocalTime());
+    }
+
+    public boolean contains(int minuteOfWeek) {
+        return gte <= minuteOfWeek && minuteOfWeek < lt;
+    }
+}
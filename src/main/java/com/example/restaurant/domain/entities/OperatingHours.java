@@ -6,12 +6,20 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 public class OperatingHours {
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("H:mm");
+
     @Field(type = FieldType.Nested)
     private TimeRange monday;
     @Field(type = FieldType.Nested)
@@ -26,4 +34,34 @@ public class OperatingHours {
     private TimeRange saturday;
     @Field(type = FieldType.Nested)
     private TimeRange sunday;
+
+    /**
+     * Converts the weekly schedule into minute-of-week ranges. A day whose
+     * closing time is not after its opening time runs past midnight, and
+     * Sunday night spans wrap around to Monday morning.
+     */
+    public List<MinuteRange> toMinuteOfWeekRanges() {
+        List<TimeRange> days = Arrays.asList(monday, tuesday, wednesday, thursday, friday, saturday, sunday);
+        List<MinuteRange> ranges = new ArrayList<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            TimeRange hours = days.get(day.getValue() - 1);
+            if (hours == null || hours.getOpenTime() == null || hours.getCloseTime() == null) {
+                continue;
+            }
+            LocalTime open = LocalTime.parse(hours.getOpenTime(), TIME_FORMAT);
+            LocalTime close = LocalTime.parse(hours.getCloseTime(), TIME_FORMAT);
+            int start = MinuteRange.minuteOfWeek(day, open);
+            int end = MinuteRange.minuteOfWeek(day, close);
+            if (!close.isAfter(open)) {
+                end += MinuteRange.MINUTES_PER_DAY;
+            }
+            if (end <= MinuteRange.MINUTES_PER_WEEK) {
+                ranges.add(new MinuteRange(start, end));
+            } else {
+                ranges.add(new MinuteRange(start, MinuteRange.MINUTES_PER_WEEK));
+                ranges.add(new MinuteRange(0, end - MinuteRange.MINUTES_PER_WEEK));
+            }
+        }
+        return ranges;
+    }
 }
@@ -9,9 +9,13 @@ import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
 import org.springframework.data.elasticsearch.annotations.GeoPointField;
+import org.springframework.data.elasticsearch.annotations.InnerField;
+import org.springframework.data.elasticsearch.annotations.MultiField;
 import org.springframework.data.elasticsearch.core.geo.GeoPoint;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Document(indexName = "restaurants")
 @Data
@@ -21,9 +25,16 @@ import java.util.List;
 public class Restaurant {
     @Id
     private String id;
-    @Field(type = FieldType.Text)
+    @MultiField(
+            mainField = @Field(type = FieldType.Text),
+            otherFields = @InnerField(suffix = "suggest", type = FieldType.Search_As_You_Type))
     private String name;
-    @Field(type = FieldType.Text)
+    @MultiField(
+            mainField = @Field(type = FieldType.Text),
+            otherFields = {
+                    @InnerField(suffix = "suggest", type = FieldType.Search_As_You_Type),
+                    @InnerField(suffix = "keyword", type = FieldType.Keyword)
+            })
     private String cuisineType;
     @Field(type = FieldType.Keyword)
     private String contactInformation;
@@ -35,11 +46,19 @@ public class Restaurant {
     private Address address;
     @Field(type = FieldType.Nested)
     private OperatingHours operatingHours;
+    @Field(type = FieldType.Integer_Range)
+    @Builder.Default
+    private List<MinuteRange> openingMinutes = new ArrayList<>();
     @Field(type = FieldType.Nested)
     private List<Photo> photos = new ArrayList<>();
-    @Field(type = FieldType.Nested)
-    private List<Review> reviews = new ArrayList<>();
+    @Field(type = FieldType.Long)
+    private Long ratingSum;
+    @Field(type = FieldType.Integer)
+    private Integer ratingCount;
+    @Field(type = FieldType.Object)
+    private Map<String, Integer> ratingHistogram;
     @Field(type = FieldType.Nested)
     private User createdBy;
+    private SeqNoPrimaryTerm seqNoPrimaryTerm;
 
 }
@@ -1,20 +1,27 @@
 package com.example.restaurant.domain.entities;
 
 import lombok.*;
+import org.springframework.data.annotation.Id;
 import org.springframework.data.elasticsearch.annotations.DateFormat;
+import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+@Document(indexName = "reviews")
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 public class Review {
+    @Id
     @Field(type = FieldType.Keyword)
     private String id;
+    @Field(type = FieldType.Keyword)
+    private String restaurantId;
     @Field(type = FieldType.Text)
     private String content;
     @Field(type = FieldType.Integer)
@@ -25,6 +32,7 @@ public class Review {
     private LocalDateTime lastEdited;
     @Field(type = FieldType.Nested)
     private List<Photo> photos = new ArrayList<>();
-    @Field(type = FieldType.Nested)
+    @Field(type = FieldType.Object)
     private User writtenBy;
+    private SeqNoPrimaryTerm seqNoPrimaryTerm;
 }
@@ -0,0 +1,15 @@
+package com.example.restaurant.exceptions;
+
+public class InvalidCursorException extends BaseException {
+    public InvalidCursorException() {
+        super();
+    }
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.restaurant.exceptions;
+
+public class PhotoTooLargeException extends BaseException {
+    public PhotoTooLargeException() {
+        super();
+    }
+
+    public PhotoTooLargeException(String message) {
+        super(message);
+    }
+
+    public PhotoTooLargeException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.restaurant.exceptions;
+
+public class UnsupportedPhotoTypeException extends BaseException {
+    public UnsupportedPhotoTypeException() {
+        super();
+    }
+
+    public UnsupportedPhotoTypeException(String message) {
+        super(message);
+    }
+
+    public UnsupportedPhotoTypeException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
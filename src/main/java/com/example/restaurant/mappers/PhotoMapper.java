@@ -1,6 +1,8 @@
 package com.example.restaurant.mappers;
 
+import com.example.restaurant.domain.PhotoUploadResult;
 import com.example.restaurant.domain.dtos.PhotoDto;
+import com.example.restaurant.domain.dtos.PhotoUploadResultDto;
 import com.example.restaurant.domain.entities.Photo;
 import org.mapstruct.Mapper;
 import org.mapstruct.ReportingPolicy;
@@ -8,4 +10,6 @@ import org.mapstruct.ReportingPolicy;
 @Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
 public interface PhotoMapper {
     PhotoDto toDto(Photo photo);
+
+    PhotoUploadResultDto toDto(PhotoUploadResult result);
 }
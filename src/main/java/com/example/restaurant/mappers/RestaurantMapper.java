@@ -1,33 +1,65 @@
 package com.example.restaurant.mappers;
 
+import com.example.restaurant.domain.FacetBucket;
+import com.example.restaurant.domain.RestaurantImportResult;
 import com.example.restaurant.domain.RestaurantCreateUpdateRequest;
+import com.example.restaurant.domain.RestaurantSearchCriteria;
+import com.example.restaurant.domain.dtos.FacetBucketDto;
 import com.example.restaurant.domain.dtos.GeoPointDto;
 import com.example.restaurant.domain.dtos.RestaurantCreateUpdateRequestDto;
 import com.example.restaurant.domain.dtos.RestaurantDto;
+import com.example.restaurant.domain.dtos.RestaurantImportResultDto;
+import com.example.restaurant.domain.dtos.RestaurantPatchRequestDto;
+import com.example.restaurant.domain.dtos.RestaurantSearchRequestDto;
+import com.example.restaurant.domain.dtos.RestaurantSuggestionDto;
 import com.example.restaurant.domain.dtos.RestaurantSummaryDto;
 import com.example.restaurant.domain.entities.Restaurant;
-import com.example.restaurant.domain.entities.Review;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
+import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.geo.GeoPoint;
 import java.util.List;
+import java.util.Map;
 
 @Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
 public interface RestaurantMapper {
     RestaurantCreateUpdateRequest toRestaurantCreateUpdateRequest(RestaurantCreateUpdateRequestDto dto);
 
-    @Mapping(target = "totalReviews", expression = "java(this.calculateTotalReviews(restaurant.getReviews()))")
+    RestaurantCreateUpdateRequest toRestaurantCreateUpdateRequest(RestaurantPatchRequestDto dto);
+
+    @Mapping(target = "totalReviews", source = "ratingCount")
     RestaurantDto toRestaurantDto(Restaurant restaurant);
 
     @Mapping(target = "latitude", expression = "java(geoPoint.getLat())")
     @Mapping(target = "longitude", expression = "java(geoPoint.getLon())")
     GeoPointDto toGeoPointDto(GeoPoint geoPoint);
 
-    @Mapping(target = "totalReviews", expression = "java(this.calculateTotalReviews(restaurant.getReviews()))")
+    @Mapping(target = "totalReviews", source = "ratingCount")
     RestaurantSummaryDto toSummaryDto(Restaurant restaurant);
 
-    default Integer calculateTotalReviews(List<Review> reviews) {
-        return reviews != null ? reviews.size() : 0;
+    RestaurantSuggestionDto toSuggestionDto(Restaurant restaurant);
+
+    @Mapping(target = "query", source = "q")
+    @Mapping(target = "hitCount", source = "count")
+    RestaurantSearchCriteria toSearchCriteria(RestaurantSearchRequestDto request);
+
+    RestaurantImportResultDto toImportResultDto(RestaurantImportResult result);
+
+    FacetBucketDto toFacetBucketDto(FacetBucket bucket);
+
+    List<FacetBucketDto> toFacetBucketDtos(List<FacetBucket> buckets);
+
+    Map<String, List<FacetBucketDto>> toFacetDtos(Map<String, List<FacetBucket>> facets);
+
+    default RestaurantSummaryDto toSummaryDto(SearchHit<Restaurant> hit, boolean sortedByDistance) {
+        RestaurantSummaryDto summary = toSummaryDto(hit.getContent());
+        if (sortedByDistance && !hit.getSortValues().isEmpty()
+                && hit.getSortValues().get(0) instanceof Number distance
+                && Double.isFinite(distance.doubleValue())) {
+            // Restaurants without a location sort last with an infinite distance.
+            summary.setDistanceKm(distance.doubleValue());
+        }
+        return summary;
     }
 }
@@ -3,6 +3,7 @@ package com.example.restaurant.mappers;
 import com.example.restaurant.domain.ReviewCreateUpdateRequest;
 import com.example.restaurant.domain.dtos.ReviewCreateUpdateRequestDto;
 import com.example.restaurant.domain.dtos.ReviewDto;
+import com.example.restaurant.domain.dtos.ReviewPatchRequestDto;
 import com.example.restaurant.domain.entities.Review;
 import org.mapstruct.Mapper;
 import org.mapstruct.ReportingPolicy;
@@ -12,5 +13,7 @@ public interface ReviewMapper {
 
     ReviewCreateUpdateRequest toReviewCreateUpdateRequest(ReviewCreateUpdateRequestDto dto);
 
+    ReviewCreateUpdateRequest toReviewCreateUpdateRequest(ReviewPatchRequestDto dto);
+
     ReviewDto toDto(Review review);
 }
\ No newline at end of file
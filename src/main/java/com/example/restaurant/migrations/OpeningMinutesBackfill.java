@@ -0,0 +1,91 @@
+package com.example.restaurant.migrations;
+
+import com.example.restaurant.domain.entities.Restaurant;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Derives {@code openingMinutes} for restaurants indexed before the field
+ * existed. Runs after {@link RestaurantMappingMigration} so the field is
+ * mapped as an integer range before any document receives it. That
+ * migration's re-index may still be running, so updates retry on conflict.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.migrations.opening-minutes.enabled", havingValue = "true", matchIfMissing = true)
+public class OpeningMinutesBackfill {
+    private static final int BATCH_SIZE = 500;
+    private static final int RETRIES_ON_CONFLICT = 3;
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ObjectProvider<RestaurantMappingMigration> mappingMigration;
+
+    @PostConstruct
+    public void backfill() {
+        // Resolving the bean forces the mapping update to run first.
+        mappingMigration.getIfAvailable();
+        if (!elasticsearchOperations.indexOps(Restaurant.class).exists()) {
+            return;
+        }
+        IndexCoordinates restaurantsIndex = elasticsearchOperations.getIndexCoordinatesFor(Restaurant.class);
+
+        NativeQuery missingOpeningMinutes = NativeQuery.builder()
+                .withQuery(q -> q.bool(b -> b.mustNot(m -> m.exists(e -> e.field("openingMinutes")))))
+                .withSourceFilter(new FetchSourceFilter(true, new String[]{"operatingHours"}, null))
+                .build();
+
+        List<UpdateQuery> batch = new ArrayList<>();
+        int backfilled = 0;
+        try (SearchHitsIterator<Restaurant> hits = elasticsearchOperations
+                .searchForStream(missingOpeningMinutes, Restaurant.class, restaurantsIndex)) {
+            while (hits.hasNext()) {
+                Restaurant restaurant = hits.next().getContent();
+                List<Map<String, Integer>> openingMinutes = openingMinutes(restaurant);
+                if (openingMinutes.isEmpty()) {
+                    continue;
+                }
+                batch.add(UpdateQuery.builder(restaurant.getId())
+                        .withDocument(Document.create().append("openingMinutes", openingMinutes))
+                        .withRetryOnConflict(RETRIES_ON_CONFLICT)
+                        .build());
+                if (batch.size() == BATCH_SIZE) {
+                    elasticsearchOperations.bulkUpdate(batch, restaurantsIndex);
+                    backfilled += batch.size();
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            elasticsearchOperations.bulkUpdate(batch, restaurantsIndex);
+            backfilled += batch.size();
+        }
+
+        if (backfilled > 0) {
+            log.info("Derived opening minutes for {} restaurants", backfilled);
+        }
+    }
+
+    private List<Map<String, Integer>> openingMinutes(Restaurant restaurant) {
+        if (restaurant.getOperatingHours() == null) {
+            return List.of();
+        }
+        return restaurant.getOperatingHours().toMinuteOfWeekRanges().stream()
+                .map(range -> Map.of("gte", range.getGte(), "lt", range.getLt()))
+                .toList();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.restaurant.migrations;
+
+import com.example.restaurant.domain.entities.Restaurant;
+import com.example.restaurant.repositories.RestaurantRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.stereotype.Component;
+
+/**
+ * Imports switch off periodic refresh of the restaurants index and switch it
+ * back on when they finish. A process killed in between leaves new documents
+ * invisible to search until the next refresh, so the interval is restored on
+ * startup, before any import can run.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RefreshIntervalRecovery {
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final RestaurantRepository restaurantRepository;
+
+    @PostConstruct
+    public void recover() {
+        if (!elasticsearchOperations.indexOps(Restaurant.class).exists()) {
+            return;
+        }
+        if (restaurantRepository.restoreSuspendedRefresh()) {
+            log.warn("Restaurants index still had refresh disabled by an interrupted import, restored it");
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.restaurant.migrations;
+
+import com.example.restaurant.domain.RestaurantImportResult;
+import com.example.restaurant.services.RestaurantImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Imports an NDJSON file of restaurants on startup when
+ * {@code app.import.file} is set, for loading a city from the command line.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.import.file")
+public class RestaurantImportRunner implements ApplicationRunner {
+    private final RestaurantImportService restaurantImportService;
+
+    @Value("${app.import.file}")
+    private Path importFile;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        RestaurantImportResult result;
+        try (InputStream ndjson = Files.newInputStream(importFile)) {
+            result = restaurantImportService.importRestaurants(ndjson);
+        }
+        result.getErrors().forEach(error -> log.warn("{} line {}: {}", importFile, error.getLine(), error.getMessage()));
+        log.info("Imported {} restaurants from {} ({} failed)", result.getImported(), importFile, result.getFailed());
+    }
+}
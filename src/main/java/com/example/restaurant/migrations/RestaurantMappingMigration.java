@@ -0,0 +1,96 @@
+package com.example.restaurant.migrations;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Conflicts;
+import co.elastic.clients.elasticsearch._types.Time;
+import co.elastic.clients.elasticsearch.tasks.GetTasksResponse;
+import com.example.restaurant.domain.entities.Restaurant;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Adds fields and subfields declared on {@link Restaurant} (such as the
+ * {@code suggest} and {@code keyword} multi-fields) to an existing
+ * {@code restaurants} index and re-indexes documents in place so subfields are
+ * populated. The mapping is updated during startup; the re-index runs as an
+ * Elasticsearch task that is polled in the background, so a large index does
+ * not hold up startup. Skipped once the live mapping already contains
+ * everything declared.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.migrations.restaurant-mapping.enabled", havingValue = "true", matchIfMissing = true)
+public class RestaurantMappingMigration {
+    private static final Time TASK_POLL_TIMEOUT = Time.of(time -> time.time("30s"));
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchClient elasticsearchClient;
+
+    @PostConstruct
+    public void migrate() throws IOException {
+        IndexOperations indexOperations = elasticsearchOperations.indexOps(Restaurant.class);
+        if (!indexOperations.exists()
+                || isUpToDate(indexOperations.getMapping(), indexOperations.createMapping())) {
+            return;
+        }
+
+        indexOperations.putMapping();
+
+        String index = indexOperations.getIndexCoordinates().getIndexName();
+        String task = elasticsearchClient.updateByQuery(request -> request
+                .index(index)
+                .conflicts(Conflicts.Proceed)
+                .refresh(true)
+                .waitForCompletion(false)).task();
+        log.info("Added new fields to the restaurants index, re-indexing in task {}", task);
+        Thread.ofPlatform().daemon().name("restaurant-mapping-migration").start(() -> awaitReindex(task));
+    }
+
+    private void awaitReindex(String task) {
+        try {
+            GetTasksResponse response;
+            do {
+                response = elasticsearchClient.tasks().get(request -> request
+                        .taskId(task)
+                        .waitForCompletion(true)
+                        .timeout(TASK_POLL_TIMEOUT));
+            } while (!response.completed());
+            if (response.error() != null) {
+                log.warn("Re-indexing restaurants failed: {}", response.error().reason());
+            } else {
+                log.info("Re-indexed restaurants to populate new fields: {}", response.response());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Lost track of restaurant re-index task {}, it keeps running in Elasticsearch", task, e);
+        }
+    }
+
+    static boolean isUpToDate(Map<String, Object> current, Map<String, Object> expected) {
+        if (!(expected.get("properties") instanceof Map<?, ?> expectedFields)) {
+            return true;
+        }
+        Map<?, ?> currentFields = current.get("properties") instanceof Map<?, ?> fields ? fields : Map.of();
+        for (Map.Entry<?, ?> field : expectedFields.entrySet()) {
+            if (!(currentFields.get(field.getKey()) instanceof Map<?, ?> currentField)) {
+                return false;
+            }
+            if (!(field.getValue() instanceof Map<?, ?> expectedField)
+                    || !(expectedField.get("fields") instanceof Map<?, ?> expectedSubfields)) {
+                continue;
+            }
+            if (!(currentField.get("fields") instanceof Map<?, ?> currentSubfields)
+                    || !currentSubfields.keySet().containsAll(expectedSubfields.keySet())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.restaurant.migrations;
+
+import com.example.restaurant.domain.entities.Restaurant;
+import com.example.restaurant.domain.entities.Review;
+import com.example.restaurant.repositories.ReviewRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves reviews that are still embedded in restaurant documents into the
+ * {@code reviews} index. Runs before the application starts serving requests,
+ * so no restaurant save can drop the legacy {@code reviews} field first.
+ * Rating aggregates are seeded from the embedded reviews on the way out, after
+ * {@link RestaurantMappingMigration} has mapped them, so dynamic mapping never
+ * types {@code ratingCount} as a long first. Safe to re-run: reviews keep
+ * their ids and only legacy documents are matched.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.migrations.split-reviews.enabled", havingValue = "true", matchIfMissing = true)
+public class ReviewIndexMigration {
+    private static final String REMOVE_EMBEDDED_REVIEWS_SCRIPT = """
+            ctx._source.remove('reviews');
+            ctx._source.ratingSum = params.ratingSum;
+            ctx._source.ratingCount = params.ratingCount;
+            ctx._source.ratingHistogram = params.ratingHistogram;
+            ctx._source.averageRating = params.ratingCount == 0 ? 0.0 : (double) params.ratingSum / params.ratingCount;
+            """;
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ReviewRepository reviewRepository;
+    private final ObjectProvider<RestaurantMappingMigration> mappingMigration;
+
+    @PostConstruct
+    public void migrate() {
+        // Resolving the bean forces the mapping update to run first.
+        mappingMigration.getIfAvailable();
+        IndexCoordinates restaurantsIndex = elasticsearchOperations.getIndexCoordinatesFor(Restaurant.class);
+
+        NativeQuery legacyRestaurants = NativeQuery.builder()
+                .withQuery(q -> q.nested(n -> n
+                        .path("reviews")
+                        .ignoreUnmapped(true)
+                        .query(inner -> inner.exists(e -> e.field("reviews.id")))))
+                .withSourceFilter(new FetchSourceFilter(true, new String[]{"reviews"}, null))
+                .build();
+
+        int migratedRestaurants = 0;
+        int migratedReviews = 0;
+        try (SearchHitsIterator<LegacyRestaurantReviews> hits = elasticsearchOperations
+                .searchForStream(legacyRestaurants, LegacyRestaurantReviews.class, restaurantsIndex)) {
+            while (hits.hasNext()) {
+                LegacyRestaurantReviews legacy = hits.next().getContent();
+                List<Review> reviews = legacy.getReviews();
+                reviews.forEach(review -> review.setRestaurantId(legacy.getId()));
+                reviewRepository.saveAll(reviews);
+
+                elasticsearchOperations.update(UpdateQuery.builder(legacy.getId())
+                        .withScript(REMOVE_EMBEDDED_REVIEWS_SCRIPT)
+                        .withParams(ratingAggregates(reviews))
+                        .build(), restaurantsIndex);
+
+                migratedRestaurants++;
+                migratedReviews += reviews.size();
+            }
+        }
+
+        if (migratedRestaurants > 0) {
+            log.info("Moved {} embedded reviews from {} restaurants into the reviews index",
+                    migratedReviews, migratedRestaurants);
+        }
+    }
+
+    private Map<String, Object> ratingAggregates(List<Review> reviews) {
+        Map<String, Integer> histogram = new HashMap<>();
+        for (int star = 1; star <= 5; star++) {
+            histogram.put(String.valueOf(star), 0);
+        }
+        long ratingSum = 0;
+        for (Review review : reviews) {
+            ratingSum += review.getRating();
+            histogram.merge(String.valueOf(review.getRating()), 1, Integer::sum);
+        }
+        return Map.of(
+                "ratingSum", ratingSum,
+                "ratingCount", reviews.size(),
+                "ratingHistogram", histogram);
+    }
+
+    @Data
+    @NoArgsConstructor
+    static class LegacyRestaurantReviews {
+        @Id
+        private String id;
+        private List<Review> reviews = new ArrayList<>();
+    }
+}
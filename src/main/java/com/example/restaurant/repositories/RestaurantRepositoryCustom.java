@@ -0,0 +1,100 @@
+package com.example.restaurant.repositories;
+
+import com.example.restaurant.domain.RestaurantSearchCriteria;
+import com.example.restaurant.domain.RestaurantSearchResult;
+import com.example.restaurant.domain.SearchSlice;
+import com.example.restaurant.domain.entities.Restaurant;
+import com.example.restaurant.domain.entities.Review;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+public interface RestaurantRepositoryCustom {
+
+    /**
+     * Runs every filter present in the criteria as one bool query and returns
+     * summary projections only. When coordinates are given, hits are sorted by
+     * distance and the first sort value of each hit is that distance in km.
+     * Facet counts are computed in the same request when the criteria asks for them.
+     * Total hits are counted as precisely as the criteria's {@code hitCount}
+     * requires, or up to Elasticsearch's default threshold when it is unset.
+     */
+    RestaurantSearchResult search(RestaurantSearchCriteria criteria, Pageable pageable);
+
+    /**
+     * Runs the same query as {@link #search} but pages with {@code search_after},
+     * breaking ties on the id, and skips counting total hits. Pass {@code null}
+     * as {@code searchAfter} for the first slice. Facets are not computed.
+     */
+    SearchSlice<SearchHit<Restaurant>> searchAfter(RestaurantSearchCriteria criteria,
+                                                   List<Object> searchAfter, int size);
+
+    /**
+     * Prefix-matches names and cuisines against their search-as-you-type
+     * subfields. Returned restaurants carry only their id and name.
+     */
+    List<Restaurant> suggest(String prefix, int size);
+
+    /**
+     * Adjusts the stored rating aggregates of a restaurant in place on the server.
+     * Pass {@code null} as {@code removedRating} for a new review and as
+     * {@code addedRating} for a deleted one.
+     */
+    void applyRatingChange(String restaurantId, Integer removedRating, Integer addedRating);
+
+    /**
+     * Overwrites the stored rating aggregates of a restaurant with ones built
+     * from the number of its reviews per star.
+     */
+    void replaceRatingAggregates(String restaurantId, Map<Integer, Long> reviewsPerStar);
+
+    /**
+     * Writes only the named fields of the restaurant as a partial update. Fails
+     * with an {@link org.springframework.dao.OptimisticLockingFailureException}
+     * when the stored document changed after the restaurant was read.
+     */
+    void updateFields(Restaurant restaurant, Collection<String> fields);
+
+    /**
+     * Indexes restaurants, which must already carry their ids, in a single
+     * {@code _bulk} request without refreshing. Returns the failure reason of
+     * every restaurant that was rejected, keyed by id.
+     */
+    Map<String, String> bulkIndex(List<Restaurant> restaurants);
+
+    /**
+     * Turns off periodic refresh of the restaurants index for a bulk load and
+     * returns the interval to pass to {@link #resumeRefresh(String)} afterwards.
+     */
+    String suspendRefresh();
+
+    /**
+     * Restores the refresh interval and refreshes once so loaded documents
+     * become searchable.
+     */
+    void resumeRefresh(String refreshInterval);
+
+    /**
+     * Puts periodic refresh back at the default interval when the restaurants
+     * index still has it switched off, as an import interrupted by a crash
+     * leaves it. Returns whether anything was restored.
+     */
+    boolean restoreSuspendedRefresh();
+
+    /**
+     * Reads every restaurant through a point-in-time reader, paging with
+     * {@code search_after}, and hands each page to {@code pageConsumer} sorted
+     * by id. When {@code includeReviews} is set, the reader also covers the
+     * reviews index, and the iterator streams the page's reviews in
+     * {@code restaurantId} order from the same snapshot, at most
+     * {@code pageSize} at a time. The iterator must be drained before the
+     * consumer returns. The reader is closed when the walk ends or the
+     * consumer throws.
+     */
+    void forEachPage(int pageSize, boolean includeReviews,
+                     BiConsumer<List<Restaurant>, Iterator<Review>> pageConsumer);
+}
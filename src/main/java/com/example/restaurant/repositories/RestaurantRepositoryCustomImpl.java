@@ -0,0 +1,570 @@
+package com.example.restaurant.repositories;
+
+import co.elastic.clients.elasticsearch._types.DistanceUnit;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.GeoLocation;
+import co.elastic.clients.elasticsearch._types.Refresh;
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.Time;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.AggregationRange;
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.TextQueryType;
+import co.elastic.clients.elasticsearch.indices.IndexSettings;
+import co.elastic.clients.elasticsearch.indices.IndexState;
+import com.example.restaurant.domain.FacetBucket;
+import com.example.restaurant.domain.HitCount;
+import com.example.restaurant.domain.RestaurantSearchCriteria;
+import com.example.restaurant.domain.RestaurantSearchResult;
+import com.example.restaurant.domain.SearchSlice;
+import com.example.restaurant.domain.entities.MinuteRange;
+import com.example.restaurant.domain.entities.Restaurant;
+import com.example.restaurant.domain.entities.Review;
+import com.example.restaurant.exceptions.RestaurantNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.RefreshPolicy;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHitSupport;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.BulkOptions;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.data.elasticsearch.core.query.UpdateResponse;
+import org.springframework.http.HttpStatus;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@RequiredArgsConstructor
+public class RestaurantRepositoryCustomImpl implements RestaurantRepositoryCustom {
+    private static final String RATING_CHANGE_SCRIPT = """
+            def s = ctx._source;
+            if (s.ratingSum == null) { s.ratingSum = 0L; }
+            if (s.ratingCount == null) { s.ratingCount = 0; }
+            if (s.ratingHistogram == null) { s.ratingHistogram = new HashMap(); }
+            if (params.removed != null) {
+              String star = String.valueOf(params.removed);
+              s.ratingSum -= params.removed;
+              s.ratingCount -= 1;
+              s.ratingHistogram[star] = s.ratingHistogram.getOrDefault(star, 0) - 1;
+            }
+            if (params.added != null) {
+              String star = String.valueOf(params.added);
+              s.ratingSum += params.added;
+              s.ratingCount += 1;
+              s.ratingHistogram[star] = s.ratingHistogram.getOrDefault(star, 0) + 1;
+            }
+            s.averageRating = s.ratingCount == 0 ? 0.0 : (double) s.ratingSum / s.ratingCount;
+            """;
+    private static final String REPLACE_RATINGS_SCRIPT = """
+            def s = ctx._source;
+            s.ratingSum = params.ratingSum;
+            s.ratingCount = params.ratingCount;
+            s.ratingHistogram = params.ratingHistogram;
+            s.averageRating = s.ratingCount == 0 ? 0.0 : (double) s.ratingSum / s.ratingCount;
+            """;
+    private static final int RATING_CHANGE_RETRIES = 5;
+    private static final String DEFAULT_REFRESH_INTERVAL = "1s";
+    private static final String REFRESH_DISABLED = "-1";
+    private static final Duration POINT_IN_TIME_KEEP_ALIVE = Duration.ofMinutes(1);
+    private static final String SHARD_DOC = "_shard_doc";
+    private static final String[] SUMMARY_FIELDS =
+            {"name", "cuisineType", "averageRating", "ratingCount", "address", "photos"};
+    private static final String[] SUGGESTION_FIELDS = {"name"};
+    private static final int FACET_SIZE = 20;
+    private static final int APPROX_TOTAL_HITS = 10_000;
+    private static final String CITY_TERMS = "cities";
+    private static final List<String> SUGGEST_FIELDS = List.of(
+            "name.suggest", "name.suggest._2gram", "name.suggest._3gram",
+            "cuisineType.suggest", "cuisineType.suggest._2gram", "cuisineType.suggest._3gram");
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchClient elasticsearchClient;
+
+    @Override
+    public RestaurantSearchResult search(RestaurantSearchCriteria criteria, Pageable pageable) {
+        NativeQueryBuilder query = searchQuery(criteria)
+                .withPageable(pageable);
+        if (criteria.getHitCount() != null) {
+            trackTotalHits(query, criteria.getHitCount(), pageable);
+        }
+
+        if (criteria.isFacets()) {
+            query.withAggregation(RestaurantSearchResult.CUISINE_FACET, Aggregation.of(a -> a
+                            .terms(t -> t.field("cuisineType.keyword").size(FACET_SIZE))))
+                    .withAggregation(RestaurantSearchResult.RATING_FACET, Aggregation.of(a -> a
+                            .range(r -> r.field("averageRating").ranges(ratingRanges()))))
+                    .withAggregation(RestaurantSearchResult.CITY_FACET, Aggregation.of(a -> a
+                            .nested(n -> n.path("address"))
+                            .aggregations(CITY_TERMS, sub -> sub
+                                    .terms(t -> t.field("address.city").size(FACET_SIZE)))));
+        }
+
+        SearchHits<Restaurant> hits = elasticsearchOperations.search(query.build(), Restaurant.class);
+        return RestaurantSearchResult.builder()
+                .page(SearchHitSupport.searchPageFor(hits, pageable))
+                .facets(criteria.isFacets() ? facets(hits) : Map.of())
+                .build();
+    }
+
+    @Override
+    public SearchSlice<SearchHit<Restaurant>> searchAfter(RestaurantSearchCriteria criteria,
+                                                          List<Object> searchAfter, int size) {
+        NativeQueryBuilder query = searchQuery(criteria);
+        if (!criteria.hasLocation()) {
+            query.withSort(s -> s.score(score -> score.order(SortOrder.Desc)));
+        }
+        // Ids are unique, so ties on score or distance still resume at the right hit.
+        query.withSort(s -> s.field(f -> f.field("id").order(SortOrder.Asc)))
+                .withMaxResults(size + 1)
+                .withTrackTotalHits(false);
+        if (searchAfter != null) {
+            query.withSearchAfter(searchAfter);
+        }
+
+        SearchHits<Restaurant> hits = elasticsearchOperations.search(query.build(), Restaurant.class);
+        return SearchSlice.of(hits.getSearchHits(), size, Function.identity());
+    }
+
+    private void trackTotalHits(NativeQueryBuilder query, HitCount hitCount, Pageable pageable) {
+        switch (hitCount) {
+            case EXACT -> query.withTrackTotalHits(true);
+            case APPROX -> query.withTrackTotalHitsUpTo(APPROX_TOTAL_HITS);
+            // One hit past this page is enough to know whether another page follows.
+            case NONE -> query.withTrackTotalHitsUpTo(
+                    Math.toIntExact(Math.min(pageable.getOffset() + pageable.getPageSize() + 1, Integer.MAX_VALUE)));
+        }
+    }
+
+    /**
+     * Builds the bool query shared by offset and cursor searches, sorted by
+     * distance when the criteria carries coordinates.
+     */
+    private NativeQueryBuilder searchQuery(RestaurantSearchCriteria criteria) {
+        BoolQuery.Builder bool = new BoolQuery.Builder();
+
+        if (criteria.hasQuery()) {
+            bool.must(q -> q.multiMatch(m -> m
+                    .query(criteria.getQuery())
+                    .fields("name", "cuisineType")
+                    .fuzziness("AUTO")));
+        }
+        if (criteria.getMinRating() != null) {
+            bool.filter(q -> q.range(r -> r.number(n -> n
+                    .field("averageRating")
+                    .gte(criteria.getMinRating().doubleValue()))));
+        }
+        if (criteria.hasCuisine()) {
+            bool.filter(q -> q.term(t -> t.field("cuisineType.keyword").value(criteria.getCuisine())));
+        }
+        if (criteria.hasCity()) {
+            bool.filter(q -> q.nested(n -> n
+                    .path("address")
+                    .query(inner -> inner.term(t -> t.field("address.city").value(criteria.getCity())))));
+        }
+        if (criteria.getOpenAt() != null) {
+            double minuteOfWeek = MinuteRange.minuteOfWeek(criteria.getOpenAt());
+            bool.filter(q -> q.range(r -> r.number(n -> n
+                    .field("openingMinutes")
+                    .gte(minuteOfWeek)
+                    .lte(minuteOfWeek))));
+        }
+        if (criteria.hasLocation() && criteria.getRadius() != null) {
+            bool.filter(q -> q.geoDistance(g -> g
+                    .field("geoLocation")
+                    .distance(criteria.getRadius() + "km")
+                    .location(searchLocation(criteria))));
+        }
+
+        NativeQueryBuilder query = NativeQuery.builder()
+                .withQuery(q -> q.bool(bool.build()))
+                .withSourceFilter(new FetchSourceFilter(true, SUMMARY_FIELDS, null));
+
+        if (criteria.hasLocation()) {
+            query.withSort(s -> s.geoDistance(g -> g
+                    .field("geoLocation")
+                    .location(searchLocation(criteria))
+                    .order(SortOrder.Asc)
+                    .unit(DistanceUnit.Kilometers)));
+        }
+        return query;
+    }
+
+    private List<AggregationRange> ratingRanges() {
+        return IntStream.rangeClosed(1, 4)
+                .mapToObj(star -> AggregationRange.of(r -> r.key(star + "+").from((double) star)))
+                .toList();
+    }
+
+    private Map<String, List<FacetBucket>> facets(SearchHits<Restaurant> hits) {
+        ElasticsearchAggregations aggregations = (ElasticsearchAggregations) hits.getAggregations();
+        if (aggregations == null) {
+            return Map.of();
+        }
+        Map<String, List<FacetBucket>> facets = new LinkedHashMap<>();
+        facets.put(RestaurantSearchResult.CUISINE_FACET,
+                termBuckets(aggregate(aggregations, RestaurantSearchResult.CUISINE_FACET)));
+        facets.put(RestaurantSearchResult.RATING_FACET,
+                aggregate(aggregations, RestaurantSearchResult.RATING_FACET).range().buckets().array().stream()
+                        .map(bucket -> new FacetBucket(bucket.key(), bucket.docCount()))
+                        .toList());
+        facets.put(RestaurantSearchResult.CITY_FACET,
+                termBuckets(aggregate(aggregations, RestaurantSearchResult.CITY_FACET)
+                        .nested().aggregations().get(CITY_TERMS)));
+        return facets;
+    }
+
+    private Aggregate aggregate(ElasticsearchAggregations aggregations, String name) {
+        return aggregations.get(name).aggregation().getAggregate();
+    }
+
+    private List<FacetBucket> termBuckets(Aggregate aggregate) {
+        return aggregate.sterms().buckets().array().stream()
+                .map(bucket -> new FacetBucket(bucket.key().stringValue(), bucket.docCount()))
+                .toList();
+    }
+
+    @Override
+    public List<Restaurant> suggest(String prefix, int size) {
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(q -> q.multiMatch(m -> m
+                        .query(prefix)
+                        .type(TextQueryType.BoolPrefix)
+                        .fields(SUGGEST_FIELDS)))
+                .withSourceFilter(new FetchSourceFilter(true, SUGGESTION_FIELDS, null))
+                .withMaxResults(size)
+                .withTrackTotalHits(false)
+                .build();
+
+        return elasticsearchOperations.search(query, Restaurant.class).stream()
+                .map(SearchHit::getContent)
+                .toList();
+    }
+
+    private GeoLocation searchLocation(RestaurantSearchCriteria criteria) {
+        return GeoLocation.of(l -> l.latlon(ll -> ll
+                .lat(criteria.getLatitude())
+                .lon(criteria.getLongitude())));
+    }
+
+    @Override
+    public void applyRatingChange(String restaurantId, Integer removedRating, Integer addedRating) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("removed", removedRating);
+        params.put("added", addedRating);
+
+        UpdateQuery updateQuery = UpdateQuery.builder(restaurantId)
+                .withScript(RATING_CHANGE_SCRIPT)
+                .withParams(params)
+                .withRetryOnConflict(RATING_CHANGE_RETRIES)
+                .withRefreshPolicy(RefreshPolicy.IMMEDIATE)
+                .build();
+
+        UpdateResponse response = elasticsearchOperations.update(updateQuery,
+                elasticsearchOperations.getIndexCoordinatesFor(Restaurant.class));
+        if (response.getResult() == UpdateResponse.Result.NOT_FOUND) {
+            throw new RestaurantNotFoundException("Restaurant not found with id: " + restaurantId);
+        }
+    }
+
+    @Override
+    public void replaceRatingAggregates(String restaurantId, Map<Integer, Long> reviewsPerStar) {
+        Map<String, Integer> histogram = new HashMap<>();
+        long ratingSum = 0;
+        int ratingCount = 0;
+        for (int star = 1; star <= 5; star++) {
+            int reviews = Math.toIntExact(reviewsPerStar.getOrDefault(star, 0L));
+            histogram.put(String.valueOf(star), reviews);
+            ratingSum += (long) star * reviews;
+            ratingCount += reviews;
+        }
+
+        UpdateQuery updateQuery = UpdateQuery.builder(restaurantId)
+                .withScript(REPLACE_RATINGS_SCRIPT)
+                .withParams(Map.of(
+                        "ratingSum", ratingSum,
+                        "ratingCount", ratingCount,
+                        "ratingHistogram", histogram))
+                .withRetryOnConflict(RATING_CHANGE_RETRIES)
+                .withRefreshPolicy(RefreshPolicy.IMMEDIATE)
+                .build();
+
+        UpdateResponse response = elasticsearchOperations.update(updateQuery,
+                elasticsearchOperations.getIndexCoordinatesFor(Restaurant.class));
+        if (response.getResult() == UpdateResponse.Result.NOT_FOUND) {
+            throw new RestaurantNotFoundException("Restaurant not found with id: " + restaurantId);
+        }
+    }
+
+    @Override
+    public void updateFields(Restaurant restaurant, Collection<String> fields) {
+        Document mapped = elasticsearchOperations.getElasticsearchConverter().mapObject(restaurant);
+        Document changes = Document.create();
+        // Absent keys are fields that became null and must be cleared explicitly.
+        fields.forEach(field -> changes.put(field, mapped.get(field)));
+
+        SeqNoPrimaryTerm seqNoPrimaryTerm = restaurant.getSeqNoPrimaryTerm();
+        String index = restaurantsIndexName();
+        try {
+            elasticsearchClient.<Restaurant, Document>update(update -> {
+                update.index(index)
+                        .id(restaurant.getId())
+                        .doc(changes)
+                        .refresh(Refresh.True);
+                if (seqNoPrimaryTerm != null) {
+                    update.ifSeqNo(seqNoPrimaryTerm.sequenceNumber()).ifPrimaryTerm(seqNoPrimaryTerm.primaryTerm());
+                }
+                return update;
+            }, Restaurant.class);
+        } catch (ElasticsearchException e) {
+            if (e.status() == HttpStatus.CONFLICT.value()) {
+                throw new OptimisticLockingFailureException(
+                        "Restaurant was modified concurrently: " + restaurant.getId(), e);
+            }
+            if (e.status() == HttpStatus.NOT_FOUND.value()) {
+                throw new RestaurantNotFoundException("Restaurant not found with id: " + restaurant.getId());
+            }
+            throw e;
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Failed to update restaurant: " + restaurant.getId(), e);
+        }
+    }
+
+    @Override
+    public Map<String, String> bulkIndex(List<Restaurant> restaurants) {
+        List<IndexQuery> indexQueries = restaurants.stream()
+                .map(restaurant -> new IndexQueryBuilder()
+                        .withId(restaurant.getId())
+                        .withObject(restaurant)
+                        .build())
+                .toList();
+        try {
+            elasticsearchOperations.bulkIndex(indexQueries, BulkOptions.defaultOptions(),
+                    elasticsearchOperations.getIndexCoordinatesFor(Restaurant.class));
+            return Map.of();
+        } catch (BulkFailureException e) {
+            return e.getFailedDocuments().entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, failure -> failure.getValue().errorMessage()));
+        }
+    }
+
+    @Override
+    public String suspendRefresh() {
+        String index = restaurantsIndexName();
+        try {
+            String refreshInterval = currentRefreshInterval(index);
+            putRefreshInterval(index, REFRESH_DISABLED);
+            return refreshInterval;
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Failed to suspend refresh of " + index, e);
+        }
+    }
+
+    @Override
+    public void resumeRefresh(String refreshInterval) {
+        String index = restaurantsIndexName();
+        try {
+            putRefreshInterval(index, refreshInterval);
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Failed to restore refresh of " + index, e);
+        }
+        elasticsearchOperations.indexOps(Restaurant.class).refresh();
+    }
+
+    @Override
+    public boolean restoreSuspendedRefresh() {
+        String index = restaurantsIndexName();
+        try {
+            if (!REFRESH_DISABLED.equals(currentRefreshInterval(index))) {
+                return false;
+            }
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Failed to read refresh interval of " + index, e);
+        }
+        resumeRefresh(DEFAULT_REFRESH_INTERVAL);
+        return true;
+    }
+
+    private String currentRefreshInterval(String index) throws IOException {
+        return elasticsearchClient.indices().getSettings(request -> request.index(index))
+                .result().values().stream()
+                .map(IndexState::settings)
+                .filter(Objects::nonNull)
+                .map(RestaurantRepositoryCustomImpl::refreshInterval)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(DEFAULT_REFRESH_INTERVAL);
+    }
+
+    private String restaurantsIndexName() {
+        return elasticsearchOperations.getIndexCoordinatesFor(Restaurant.class).getIndexName();
+    }
+
+    private void putRefreshInterval(String index, String refreshInterval) throws IOException {
+        elasticsearchClient.indices().putSettings(request -> request
+                .index(index)
+                .settings(settings -> settings.refreshInterval(Time.of(time -> time.time(refreshInterval)))));
+    }
+
+    private static String refreshInterval(IndexSettings settings) {
+        Time refreshInterval = settings.index() != null && settings.index().refreshInterval() != null
+                ? settings.index().refreshInterval()
+                : settings.refreshInterval();
+        return refreshInterval != null && refreshInterval.isTime() ? refreshInterval.time() : null;
+    }
+
+    @Override
+    public void forEachPage(int pageSize, boolean includeReviews,
+                            BiConsumer<List<Restaurant>, Iterator<Review>> pageConsumer) {
+        String restaurantsIndex = restaurantsIndexName();
+        String reviewsIndex = elasticsearchOperations.getIndexCoordinatesFor(Review.class).getIndexName();
+        // One point in time over both indices keeps restaurants and their reviews a consistent snapshot.
+        PointInTimeReader reader = new PointInTimeReader(includeReviews
+                ? IndexCoordinates.of(restaurantsIndex, reviewsIndex)
+                : IndexCoordinates.of(restaurantsIndex));
+        try {
+            List<Object> searchAfter = null;
+            while (true) {
+                NativeQueryBuilder query = NativeQuery.builder()
+                        .withQuery(q -> q.bool(b -> b.filter(f -> f.term(t -> t
+                                .field("_index")
+                                .value(restaurantsIndex)))))
+                        // _shard_doc is the cheapest total order a point in time offers.
+                        .withSort(s -> s.field(f -> f.field(SHARD_DOC).order(SortOrder.Asc)))
+                        .withMaxResults(pageSize);
+                if (searchAfter != null) {
+                    query.withSearchAfter(searchAfter);
+                }
+                List<SearchHit<Restaurant>> page = reader.search(query, Restaurant.class);
+                if (page.isEmpty()) {
+                    return;
+                }
+                List<Restaurant> restaurants = page.stream()
+                        .map(SearchHit::getContent)
+                        .sorted(Comparator.comparing(Restaurant::getId))
+                        .toList();
+                Iterator<Review> reviews = includeReviews
+                        ? new ReviewsOfPage(reader, reviewsIndex, restaurants, pageSize)
+                        : Collections.emptyIterator();
+                pageConsumer.accept(restaurants, reviews);
+                if (page.size() < pageSize) {
+                    return;
+                }
+                searchAfter = page.get(page.size() - 1).getSortValues();
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Pages through one point in time, following the id Elasticsearch hands
+     * back with every response.
+     */
+    private class PointInTimeReader {
+        private String pointInTimeId;
+
+        PointInTimeReader(IndexCoordinates indices) {
+            this.pointInTimeId = elasticsearchOperations.openPointInTime(indices, POINT_IN_TIME_KEEP_ALIVE);
+        }
+
+        <T> List<SearchHit<T>> search(NativeQueryBuilder query, Class<T> type) {
+            query.withPointInTime(new Query.PointInTime(pointInTimeId, POINT_IN_TIME_KEEP_ALIVE))
+                    .withTrackTotalHits(false);
+            SearchHits<T> hits = elasticsearchOperations.search(query.build(), type);
+            if (hits.getPointInTimeId() != null) {
+                pointInTimeId = hits.getPointInTimeId();
+            }
+            return hits.getSearchHits();
+        }
+
+        void close() {
+            elasticsearchOperations.closePointInTime(pointInTimeId);
+        }
+    }
+
+    /**
+     * Streams the reviews of one page of restaurants in {@code restaurantId}
+     * order, fetching at most {@code batchSize} at a time.
+     */
+    private static class ReviewsOfPage implements Iterator<Review> {
+        private final PointInTimeReader reader;
+        private final String reviewsIndex;
+        private final List<FieldValue> restaurantIds;
+        private final int batchSize;
+        private Iterator<SearchHit<Review>> batch = Collections.emptyIterator();
+        private List<Object> searchAfter;
+        private boolean exhausted;
+
+        ReviewsOfPage(PointInTimeReader reader, String reviewsIndex, List<Restaurant> restaurants, int batchSize) {
+            this.reader = reader;
+            this.reviewsIndex = reviewsIndex;
+            this.restaurantIds = restaurants.stream().map(restaurant -> FieldValue.of(restaurant.getId())).toList();
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!batch.hasNext() && !exhausted) {
+                fetch();
+            }
+            return batch.hasNext();
+        }
+
+        @Override
+        public Review next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            SearchHit<Review> hit = batch.next();
+            searchAfter = hit.getSortValues();
+            return hit.getContent();
+        }
+
+        private void fetch() {
+            NativeQueryBuilder query = NativeQuery.builder()
+                    .withQuery(q -> q.bool(b -> b
+                            .filter(f -> f.term(t -> t.field("_index").value(reviewsIndex)))
+                            .filter(f -> f.terms(t -> t.field("restaurantId").terms(terms -> terms.value(restaurantIds))))))
+                    .withSort(s -> s.field(f -> f.field("restaurantId").order(SortOrder.Asc)))
+                    .withSort(s -> s.field(f -> f.field(SHARD_DOC).order(SortOrder.Asc)))
+                    .withMaxResults(batchSize);
+            if (searchAfter != null) {
+                query.withSearchAfter(searchAfter);
+            }
+            List<SearchHit<Review>> hits = reader.search(query, Review.class);
+            exhausted = hits.size() < batchSize;
+            batch = hits.iterator();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.restaurant.repositories;
+
+import com.example.restaurant.domain.entities.Review;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReviewRepository extends ElasticsearchRepository<Review, String>, ReviewRepositoryCustom {
+
+    Page<Review> findByRestaurantId(String restaurantId, Pageable pageable);
+
+    boolean existsByRestaurantIdAndWrittenById(String restaurantId, String userId);
+
+    void deleteByRestaurantId(String restaurantId);
+
+}
@@ -0,0 +1,44 @@
+package com.example.restaurant.repositories;
+
+import com.example.restaurant.domain.SearchSlice;
+import com.example.restaurant.domain.entities.Review;
+import org.springframework.data.domain.Sort;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ReviewRepositoryCustom {
+
+    /**
+     * Indexes a new review with {@code op_type=create}. Throws
+     * {@link org.springframework.dao.DuplicateKeyException} when a review
+     * with the same id already exists.
+     */
+    void create(Review review);
+
+    /**
+     * Deletes the review only if it is still at the sequence number it was read with.
+     * Returns {@code false} when the review no longer exists and throws
+     * {@link org.springframework.dao.OptimisticLockingFailureException} when it was changed.
+     */
+    boolean deleteIfUnchanged(Review review);
+
+    /**
+     * Writes only the named fields of the review as a partial update. Fails
+     * with an {@link org.springframework.dao.OptimisticLockingFailureException}
+     * when the stored review changed after it was read.
+     */
+    void updateFields(Review review, Collection<String> fields);
+
+    /**
+     * Counts the restaurant's reviews per star rating. Stars nobody gave are absent.
+     */
+    Map<Integer, Long> countByRating(String restaurantId);
+
+    /**
+     * Returns up to {@code size} reviews of the restaurant that sort after
+     * {@code searchAfter}, or the first ones when it is {@code null}, without
+     * counting total hits. {@code sort} must end with a unique tiebreak field.
+     */
+    SearchSlice<Review> findByRestaurantIdAfter(String restaurantId, Sort sort, List<Object> searchAfter, int size);
+}
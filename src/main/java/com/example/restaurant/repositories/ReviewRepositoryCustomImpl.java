@@ -0,0 +1,148 @@
+package com.example.restaurant.repositories;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.Refresh;
+import co.elastic.clients.elasticsearch._types.Result;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch.core.DeleteResponse;
+import com.example.restaurant.domain.SearchSlice;
+import com.example.restaurant.domain.entities.Review;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.ResourceNotFoundException;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
+import org.springframework.http.HttpStatus;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class ReviewRepositoryCustomImpl implements ReviewRepositoryCustom {
+    private static final String RATINGS = "ratings";
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    @Override
+    public void create(Review review) {
+        Document document = elasticsearchOperations.getElasticsearchConverter().mapObject(review);
+        String indexName = elasticsearchOperations.getIndexCoordinatesFor(Review.class).getIndexName();
+        try {
+            elasticsearchClient.create(create -> create
+                    .index(indexName)
+                    .id(review.getId())
+                    .document(document)
+                    .refresh(Refresh.True));
+        } catch (ElasticsearchException e) {
+            if (e.status() == HttpStatus.CONFLICT.value()) {
+                throw new DuplicateKeyException("Review already exists: " + review.getId(), e);
+            }
+            throw e;
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Failed to create review: " + review.getId(), e);
+        }
+    }
+
+    @Override
+    public boolean deleteIfUnchanged(Review review) {
+        SeqNoPrimaryTerm readVersion = review.getSeqNoPrimaryTerm();
+        String indexName = elasticsearchOperations.getIndexCoordinatesFor(Review.class).getIndexName();
+        try {
+            DeleteResponse response = elasticsearchClient.delete(delete -> delete
+                    .index(indexName)
+                    .id(review.getId())
+                    .ifSeqNo(readVersion.sequenceNumber())
+                    .ifPrimaryTerm(readVersion.primaryTerm())
+                    .refresh(Refresh.True));
+            return response.result() == Result.Deleted;
+        } catch (ElasticsearchException e) {
+            if (e.status() == HttpStatus.CONFLICT.value()) {
+                throw new OptimisticLockingFailureException("Review was modified concurrently: " + review.getId(), e);
+            }
+            throw e;
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Failed to delete review: " + review.getId(), e);
+        }
+    }
+
+    @Override
+    public void updateFields(Review review, Collection<String> fields) {
+        Document mapped = elasticsearchOperations.getElasticsearchConverter().mapObject(review);
+        Document changes = Document.create();
+        fields.forEach(field -> changes.put(field, mapped.get(field)));
+
+        SeqNoPrimaryTerm readVersion = review.getSeqNoPrimaryTerm();
+        String indexName = elasticsearchOperations.getIndexCoordinatesFor(Review.class).getIndexName();
+        try {
+            elasticsearchClient.<Review, Document>update(update -> {
+                update.index(indexName)
+                        .id(review.getId())
+                        .doc(changes)
+                        .refresh(Refresh.True);
+                if (readVersion != null) {
+                    update.ifSeqNo(readVersion.sequenceNumber()).ifPrimaryTerm(readVersion.primaryTerm());
+                }
+                return update;
+            }, Review.class);
+        } catch (ElasticsearchException e) {
+            if (e.status() == HttpStatus.CONFLICT.value()) {
+                throw new OptimisticLockingFailureException("Review was modified concurrently: " + review.getId(), e);
+            }
+            if (e.status() == HttpStatus.NOT_FOUND.value()) {
+                throw new ResourceNotFoundException("Review not found");
+            }
+            throw e;
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Failed to update review: " + review.getId(), e);
+        }
+    }
+
+    @Override
+    public Map<Integer, Long> countByRating(String restaurantId) {
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(q -> q.bool(b -> b.filter(f -> f.term(t -> t
+                        .field("restaurantId")
+                        .value(restaurantId)))))
+                .withAggregation(RATINGS, Aggregation.of(a -> a.terms(t -> t.field("rating").size(5))))
+                .withMaxResults(0)
+                .withTrackTotalHits(false)
+                .build();
+
+        ElasticsearchAggregations aggregations = (ElasticsearchAggregations) elasticsearchOperations
+                .search(query, Review.class).getAggregations();
+        Map<Integer, Long> reviewsPerStar = new HashMap<>();
+        aggregations.get(RATINGS).aggregation().getAggregate().lterms().buckets().array()
+                .forEach(bucket -> reviewsPerStar.put((int) bucket.key(), bucket.docCount()));
+        return reviewsPerStar;
+    }
+
+    @Override
+    public SearchSlice<Review> findByRestaurantIdAfter(String restaurantId, Sort sort,
+                                                       List<Object> searchAfter, int size) {
+        NativeQueryBuilder query = NativeQuery.builder()
+                .withQuery(q -> q.bool(b -> b.filter(f -> f.term(t -> t
+                        .field("restaurantId")
+                        .value(restaurantId)))))
+                .withSort(sort)
+                .withMaxResults(size + 1)
+                .withTrackTotalHits(false);
+        if (searchAfter != null) {
+            query.withSearchAfter(searchAfter);
+        }
+
+        return SearchSlice.of(elasticsearchOperations.search(query.build(), Review.class).getSearchHits(), size,
+                SearchHit::getContent);
+    }
+}
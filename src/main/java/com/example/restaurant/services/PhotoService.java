@@ -1,11 +1,27 @@
 package com.example.restaurant.services;
 
+import com.example.restaurant.domain.PhotoResource;
+import com.example.restaurant.domain.PhotoUploadResult;
 import com.example.restaurant.domain.entities.Photo;
-import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
+import java.io.InputStream;
+import java.util.List;
 import java.util.Optional;
 
 public interface PhotoService {
     Photo uploadPhoto(MultipartFile file);
-    Optional<Resource> getPhotoAsResource(String id);
+
+    /**
+     * Streams a raw image body into storage. {@code contentLength} is the
+     * declared length, or -1 when unknown.
+     */
+    Photo uploadPhoto(InputStream content, long contentLength);
+    /**
+     * Stores every file, returning one result per file in the same order. A
+     * file that cannot be stored yields a result with an error instead of
+     * failing the whole batch.
+     */
+    List<PhotoUploadResult> uploadPhotos(List<MultipartFile> files);
+
+    Optional<PhotoResource> getPhotoAsResource(String id, Integer width);
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.example.restaurant.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface RestaurantExportService {
+    /**
+     * Writes every restaurant to {@code out} as NDJSON, one restaurant per
+     * line, with its reviews embedded under {@code reviews} when
+     * {@code includeReviews} is set. Restaurants and reviews come from the
+     * same snapshot. Returns the number of restaurants written.
+     */
+    long exportRestaurants(OutputStream out, boolean includeReviews) throws IOException;
+}
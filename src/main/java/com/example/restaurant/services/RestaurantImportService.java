@@ -0,0 +1,13 @@
+package com.example.restaurant.services;
+
+import com.example.restaurant.domain.RestaurantImportResult;
+import java.io.InputStream;
+
+public interface RestaurantImportService {
+    /**
+     * Creates a restaurant for every line of {@code ndjson}, each holding one
+     * {@code RestaurantCreateUpdateRequestDto}. Invalid records are reported
+     * in the result and do not stop the import.
+     */
+    RestaurantImportResult importRestaurants(InputStream ndjson);
+}
@@ -1,27 +1,35 @@
 package com.example.restaurant.services;
 
 import com.example.restaurant.domain.RestaurantCreateUpdateRequest;
+import com.example.restaurant.domain.RestaurantSearchCriteria;
+import com.example.restaurant.domain.RestaurantSearchResult;
+import com.example.restaurant.domain.SearchSlice;
 import com.example.restaurant.domain.entities.Restaurant;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.core.SearchHit;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface RestaurantService {
     Restaurant createRestaurant(RestaurantCreateUpdateRequest restaurant);
 
-    Page<Restaurant> searchRestaurants(
-            String query,
-            Float minRating,
-            Float latitude,
-            Float longitude,
-            Float radius,
-            Pageable pageable
-    );
+    RestaurantSearchResult searchRestaurants(RestaurantSearchCriteria criteria, Pageable pageable);
+
+    SearchSlice<SearchHit<Restaurant>> searchRestaurants(RestaurantSearchCriteria criteria,
+                                                         List<Object> searchAfter, int size);
+
+    List<Restaurant> suggestRestaurants(String prefix, int size);
 
     Optional<Restaurant> getRestaurant(String id);
 
     Restaurant updateRestaurant(String id, RestaurantCreateUpdateRequest restaurant);
 
+    /**
+     * Applies only the non-null fields of {@code changes}; everything else
+     * keeps its stored value.
+     */
+    Restaurant patchRestaurant(String id, RestaurantCreateUpdateRequest changes);
+
     void deleteRestaurant(String id);
 }
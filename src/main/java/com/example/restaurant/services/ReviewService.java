@@ -1,11 +1,13 @@
 package com.example.restaurant.services;
 
 import com.example.restaurant.domain.ReviewCreateUpdateRequest;
+import com.example.restaurant.domain.SearchSlice;
 import com.example.restaurant.domain.entities.Review;
 import com.example.restaurant.domain.entities.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface ReviewService {
@@ -13,10 +15,22 @@ public interface ReviewService {
 
     Page<Review> listReviews(String restaurantId, Pageable pageable);
 
+    /**
+     * Lists reviews after the given sort values in the order requested by
+     * {@code pageable}, whose page number is ignored.
+     */
+    SearchSlice<Review> listReviews(String restaurantId, List<Object> searchAfter, Pageable pageable);
+
     Optional<Review> getRestaurantReview(String restaurantId, String reviewId);
 
     Review updateReview(User user, String restaurantId, String reviewId, ReviewCreateUpdateRequest updatedReview);
 
+    /**
+     * Applies only the non-null fields of {@code changes}; everything else
+     * keeps its stored value.
+     */
+    Review patchReview(User user, String restaurantId, String reviewId, ReviewCreateUpdateRequest changes);
+
     void deleteReview(String restaurantId, String reviewId);
 
 }
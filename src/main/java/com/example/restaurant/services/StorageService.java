@@ -2,10 +2,29 @@ package com.example.restaurant.services;
 
 import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
+import java.io.InputStream;
 import java.util.Optional;
 
 public interface StorageService {
     String store(MultipartFile file, String filename);
+
+    /**
+     * Stores the stream under exactly {@code filename}. The file only becomes
+     * visible to {@link #loadAsResource} once it has been written completely.
+     */
+    String store(InputStream content, String filename);
+
     Optional<Resource> loadAsResource(String filename);
 
+    /**
+     * Hex SHA-256 of the file's content when the backend records one, for use
+     * as a strong validator. Empty when the backend does not hash content.
+     */
+    Optional<String> contentHash(String filename);
+
+    /**
+     * Removes {@code filename}. Does nothing when no such file is stored.
+     */
+    void delete(String filename);
+
 }
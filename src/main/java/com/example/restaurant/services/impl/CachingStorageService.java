@@ -0,0 +1,148 @@
+package com.example.restaurant.services.impl;
+
+import com.example.restaurant.services.StorageService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the bytes of frequently served files in direct buffers in front of the
+ * configured storage backend. The cache is bounded by total bytes and evicts
+ * with Caffeine's W-TinyLFU policy, so a burst of one-off requests does not
+ * displace the hot set. Files larger than {@code max-file-size} always go to
+ * the backend. Served resources are not file-backed, so cached photos are
+ * copied from memory instead of using sendfile.
+ */
+@Service
+@Primary
+@Slf4j
+@ConditionalOnProperty(name = "app.storage.cache.enabled", havingValue = "true")
+public class CachingStorageService implements StorageService {
+    static final String BACKEND = "storageBackend";
+    static final String CACHE_NAME = "photoBytes";
+
+    private final StorageService delegate;
+    private final long maxFileSize;
+    private final Cache<String, ByteBufferResource> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public CachingStorageService(
+            @Qualifier(BACKEND) StorageService delegate,
+            @Value("${app.storage.cache.max-size:64MB}") DataSize maxSize,
+            @Value("${app.storage.cache.max-file-size:2MB}") DataSize maxFileSize,
+            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxFileSize = Math.min(maxFileSize.toBytes(), Integer.MAX_VALUE);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String filename, ByteBufferResource resource) ->
+                        (int) resource.contentLength() + filename.length())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("cache.weighted.size", cache, c -> c.policy().eviction()
+                        .map(eviction -> eviction.weightedSize().orElse(0))
+                        .orElse(0L))
+                .tag("cache", CACHE_NAME)
+                .description("Bytes held by the cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String store(MultipartFile file, String filename) {
+        String stored = delegate.store(file, filename);
+        invalidate(stored);
+        return stored;
+    }
+
+    @Override
+    public String store(InputStream content, String filename) {
+        String stored = delegate.store(content, filename);
+        invalidate(stored);
+        return stored;
+    }
+
+    @Override
+    public Optional<Resource> loadAsResource(String filename) {
+        ByteBufferResource cached = cache.getIfPresent(filename);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        long observedGeneration = generation.get();
+        Optional<Resource> resource = delegate.loadAsResource(filename);
+        if (resource.isEmpty()) {
+            return resource;
+        }
+        try {
+            long length = resource.get().contentLength();
+            if (length > maxFileSize) {
+                return resource;
+            }
+            ByteBufferResource loaded = read(resource.get(), filename, (int) length);
+            if (loaded == null) {
+                return resource;
+            }
+            cache.put(filename, loaded);
+            // A store that landed while we were reading may have replaced the file.
+            if (generation.get() != observedGeneration) {
+                cache.asMap().remove(filename, loaded);
+            }
+            return Optional.of(loaded);
+        } catch (IOException e) {
+            log.debug("Could not cache file: {}", filename, e);
+            return resource;
+        }
+    }
+
+    @Override
+    public Optional<String> contentHash(String filename) {
+        return delegate.contentHash(filename);
+    }
+
+    @Override
+    public void delete(String filename) {
+        delegate.delete(filename);
+        invalidate(filename);
+    }
+
+    private void invalidate(String filename) {
+        generation.incrementAndGet();
+        cache.invalidate(filename);
+    }
+
+    private ByteBufferResource read(Resource resource, String filename, int length) throws IOException {
+        long lastModified = resource.lastModified();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(length);
+        try (ReadableByteChannel channel = resource.readableChannel()) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+            }
+            // A file that grew or shrank since its length was read is served uncached.
+            if (buffer.hasRemaining() || channel.read(ByteBuffer.allocate(1)) >= 0) {
+                return null;
+            }
+        }
+        return new ByteBufferResource(buffer.flip(), filename, lastModified);
+    }
+}
@@ -0,0 +1,310 @@
+package com.example.restaurant.services.impl;
+
+import com.example.restaurant.exceptions.StorageException;
+import com.example.restaurant.services.StorageService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Stores each distinct file once under its SHA-256 hash in {@code .blobs}
+ * (sharded like logical names) and exposes logical names as hard links to the
+ * blob, so the file system's link count is the reference count and deleting a
+ * logical name never affects other names sharing the content. The hash is computed while the upload is
+ * written, so content is read only once. Every logical name is also recorded
+ * in {@code .refs} as a small file holding the hash, which callers can use as
+ * a strong validator; where hard links are unsupported, lookups serve the blob
+ * through that reference. A blob is deleted once the last logical name using
+ * it is deleted or overwritten: when its link count drops to one, or, without
+ * hard links, when no reference holds its hash. Names stored before references
+ * were recorded for every file cannot release their blob.
+ */
+@Service(CachingStorageService.BACKEND)
+@Slf4j
+@ConditionalOnProperty(name = "app.storage.mode", havingValue = "content-addressed")
+public class ContentAddressedStorageService implements StorageService {
+    static final String BLOB_DIRECTORY = ".blobs";
+    static final String REFERENCE_DIRECTORY = ".refs";
+    private static final int LOCK_STRIPES = 64;
+
+    @Value("${app.storage.location:storage}")
+    private String storageLocation;
+
+    @Value("${app.storage.shard-depth:0}")
+    private int shardDepth;
+
+    private StorageLayout layout;
+    private Path blobDirectory;
+    private Path referenceDirectory;
+    private volatile boolean hardLinksSupported = true;
+    // Publishing and releasing a blob hold its stripe, so a release never deletes a blob being linked to.
+    private final Object[] blobLocks = Stream.generate(Object::new).limit(LOCK_STRIPES).toArray();
+
+    @PostConstruct
+    public void init() {
+        layout = new StorageLayout(storageLocation, shardDepth);
+        blobDirectory = layout.root().resolve(BLOB_DIRECTORY);
+        referenceDirectory = layout.root().resolve(REFERENCE_DIRECTORY);
+        try {
+            Files.createDirectories(blobDirectory);
+            Files.createDirectories(referenceDirectory);
+        } catch (IOException e) {
+            throw new StorageException("Failed to initialize storage location", e);
+        }
+    }
+
+    @Override
+    public String store(MultipartFile file, String filename) {
+        String finalFilename = StorageLayout.filenameFor(file, filename);
+        try (InputStream inputStream = file.getInputStream()) {
+            return store(inputStream, finalFilename);
+        } catch (IOException e) {
+            throw new StorageException("Failed to store file", e);
+        }
+    }
+
+    @Override
+    public String store(InputStream content, String filename) {
+        Path destinationFile = layout.resolve(filename);
+
+        Path tempFile = null;
+        try {
+            tempFile = layout.createTempFile();
+            MessageDigest digest = sha256();
+            layout.write(new DigestInputStream(content, digest), tempFile);
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Optional<String> previousHash = contentHash(filename);
+
+            synchronized (lockFor(hash)) {
+                Path blob = layout.shard(blobDirectory, hash);
+                publishBlob(tempFile, blob);
+                referTo(hash, filename);
+                if (!linkInto(blob, destinationFile)) {
+                    // The reference is what gets served, so no linked copy may shadow it.
+                    Files.deleteIfExists(destinationFile);
+                    Files.deleteIfExists(layout.root().resolve(filename));
+                }
+            }
+            if (previousHash.isPresent() && !previousHash.get().equals(hash)) {
+                releaseBlob(previousHash.get());
+            }
+            return filename;
+        } catch (IOException e) {
+            throw new StorageException("Failed to store file", e);
+        } finally {
+            StorageLayout.deleteQuietly(tempFile);
+        }
+    }
+
+    @Override
+    public Optional<Resource> loadAsResource(String filename) {
+        Optional<Resource> linked = layout.loadAsResource(filename);
+        if (linked.isPresent() || !layout.isPlainName(filename)) {
+            return linked;
+        }
+        return referencesOf(filename).stream()
+                .filter(Files::isRegularFile)
+                .findFirst()
+                .flatMap(this::loadBlob);
+    }
+
+    @Override
+    public void delete(String filename) {
+        Path destinationFile = layout.resolve(filename);
+        try {
+            Optional<String> hash = contentHash(filename);
+            Files.deleteIfExists(destinationFile);
+            Files.deleteIfExists(layout.root().resolve(filename));
+            for (Path reference : referencesOf(filename)) {
+                Files.deleteIfExists(reference);
+            }
+            if (hash.isPresent()) {
+                releaseBlob(hash.get());
+            }
+        } catch (IOException e) {
+            throw new StorageException("Failed to delete file", e);
+        }
+    }
+
+    @Override
+    public Optional<String> contentHash(String filename) {
+        if (!layout.isPlainName(filename)) {
+            return Optional.empty();
+        }
+        return referencesOf(filename).stream()
+                .filter(Files::isRegularFile)
+                .findFirst()
+                .flatMap(this::readReference);
+    }
+
+    private Optional<Resource> loadBlob(Path reference) {
+        return readReference(reference)
+                .map(hash -> layout.shard(blobDirectory, hash))
+                .filter(Files::isRegularFile)
+                .flatMap(blob -> {
+                    try {
+                        return Optional.of(new UrlResource(blob.toUri()));
+                    } catch (IOException e) {
+                        log.debug("Could not load blob: {}", blob, e);
+                        return Optional.empty();
+                    }
+                });
+    }
+
+    private Optional<String> readReference(Path reference) {
+        try {
+            return Optional.of(Files.readString(reference).trim());
+        } catch (IOException e) {
+            log.debug("Could not read blob reference: {}", reference, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Makes {@code tempFile}'s content available as {@code blob} unless an
+     * identical blob already exists. Linking fails atomically when the blob is
+     * present, so concurrent uploads of the same content keep a single inode.
+     */
+    private void publishBlob(Path tempFile, Path blob) throws IOException {
+        Files.createDirectories(blob.getParent());
+        if (hardLinksSupported) {
+            try {
+                Files.createLink(blob, tempFile);
+                return;
+            } catch (FileAlreadyExistsException e) {
+                return;
+            } catch (UnsupportedOperationException | FileSystemException e) {
+                disableHardLinks(e);
+            }
+        }
+        if (!Files.exists(blob)) {
+            Files.move(tempFile, blob, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * Hard-links {@code blob} into place as {@code destinationFile}. Returns
+     * {@code false} without touching the destination when hard links are
+     * unsupported.
+     */
+    private boolean linkInto(Path blob, Path destinationFile) throws IOException {
+        if (!hardLinksSupported) {
+            return false;
+        }
+        Path staged = layout.tempPath();
+        try {
+            try {
+                Files.createLink(staged, blob);
+            } catch (UnsupportedOperationException | FileSystemException e) {
+                disableHardLinks(e);
+                return false;
+            }
+            layout.moveIntoPlace(staged, destinationFile);
+            return true;
+        } finally {
+            StorageLayout.deleteQuietly(staged);
+        }
+    }
+
+    /**
+     * Records {@code filename} as a reference to the blob, dropping any flat
+     * reference the shard migration has not moved yet.
+     */
+    private void referTo(String hash, String filename) throws IOException {
+        Path reference = layout.shard(referenceDirectory, filename);
+        Path staged = layout.tempPath();
+        try {
+            Files.writeString(staged, hash);
+            layout.moveIntoPlace(staged, reference);
+        } finally {
+            StorageLayout.deleteQuietly(staged);
+        }
+        Path flat = referenceDirectory.resolve(filename);
+        if (!flat.equals(reference)) {
+            Files.deleteIfExists(flat);
+        }
+    }
+
+    /**
+     * Deletes the blob when no logical name uses it any more. With hard links
+     * every name is a link, so a blob whose only link is itself is unused.
+     */
+    private void releaseBlob(String hash) throws IOException {
+        synchronized (lockFor(hash)) {
+            List<Path> blobs = Stream.of(layout.shard(blobDirectory, hash), blobDirectory.resolve(hash))
+                    .distinct()
+                    .filter(Files::isRegularFile)
+                    .toList();
+            if (blobs.isEmpty() || isReferenced(hash, blobs)) {
+                return;
+            }
+            for (Path blob : blobs) {
+                Files.deleteIfExists(blob);
+            }
+        }
+    }
+
+    private boolean isReferenced(String hash, List<Path> blobs) throws IOException {
+        if (hardLinksSupported) {
+            try {
+                for (Path blob : blobs) {
+                    if ((Integer) Files.getAttribute(blob, "unix:nlink") > 1) {
+                        return true;
+                    }
+                }
+                return false;
+            } catch (UnsupportedOperationException | IllegalArgumentException e) {
+                log.debug("Link counts are unavailable, scanning references for {}", hash, e);
+            }
+        }
+        try (Stream<Path> references = Files.walk(referenceDirectory)) {
+            return references
+                    .filter(Files::isRegularFile)
+                    .anyMatch(reference -> readReference(reference).map(hash::equals).orElse(true));
+        }
+    }
+
+    private Object lockFor(String hash) {
+        return blobLocks[Math.floorMod(hash.hashCode(), blobLocks.length)];
+    }
+
+    /** Sharded location first, then the flat one the shard migration may not have reached. */
+    private List<Path> referencesOf(String filename) {
+        return List.of(layout.shard(referenceDirectory, filename), referenceDirectory.resolve(filename));
+    }
+
+    private void disableHardLinks(Exception cause) {
+        if (hardLinksSupported) {
+            hardLinksSupported = false;
+            log.warn("Storage location does not support hard links, logical names will be stored as references",
+                    cause);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
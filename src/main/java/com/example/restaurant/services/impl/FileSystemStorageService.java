@@ -5,78 +5,77 @@ import com.example.restaurant.services.StorageService;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.MalformedURLException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.Optional;
 
-@Service
+@Service(CachingStorageService.BACKEND)
 @Slf4j
+@ConditionalOnProperty(name = "app.storage.mode", havingValue = "filesystem", matchIfMissing = true)
 public class FileSystemStorageService implements StorageService  {
     @Value("${app.storage.location:storage}")
     private String storageLocation;
 
-    private Path rootLocation;
+    @Value("${app.storage.shard-depth:0}")
+    private int shardDepth;
+
+    private StorageLayout layout;
 
     @PostConstruct
     public void init() {
-        rootLocation = Path.of(storageLocation);
-        try {
-            Files.createDirectories(rootLocation);
-        } catch (IOException e) {
-            throw new StorageException("Failed to initialize storage location", e);
-        }
+        layout = new StorageLayout(storageLocation, shardDepth);
     }
 
     @Override
     public String store(MultipartFile file, String filename) {
-        try {
-        if (file.isEmpty()) {
-            throw new StorageException("Failed to store empty file");
+        String finalFilename = StorageLayout.filenameFor(file, filename);
+        try (InputStream inputStream = file.getInputStream()) {
+            return store(inputStream, finalFilename);
+        } catch (IOException e) {
+            throw new StorageException("Failed to store file", e);
         }
+    }
 
-        String extension = StringUtils.getFilenameExtension(file.getOriginalFilename());
-        String finalFilename = filename + "." + extension;
-
-        Path destinationFile = this.rootLocation.resolve(Paths.get(finalFilename))
-                .normalize().toAbsolutePath();
+    @Override
+    public String store(InputStream content, String filename) {
+        Path destinationFile = layout.resolve(filename);
 
-        if (!destinationFile.getParent().equals(this.rootLocation.toAbsolutePath())) {
-            throw new StorageException("Cannot store file outside current directory");
+        Path tempFile = null;
+        try {
+            tempFile = layout.createTempFile();
+            layout.write(content, tempFile);
+            layout.moveIntoPlace(tempFile, destinationFile);
+            return filename;
+        } catch (IOException e) {
+            throw new StorageException("Failed to store file", e);
+        } finally {
+            StorageLayout.deleteQuietly(tempFile);
         }
+    }
 
-        try (InputStream inputStream = file.getInputStream()) {
-            Files.copy(inputStream, destinationFile, StandardCopyOption.REPLACE_EXISTING);
-        }
-        return finalFilename;
-    } catch (IOException e) {
-        throw new StorageException("Failed to store file", e);
+    @Override
+    public Optional<Resource> loadAsResource(String filename) {
+        return layout.loadAsResource(filename);
     }
 
-}
+    @Override
+    public Optional<String> contentHash(String filename) {
+        return Optional.empty();
+    }
 
     @Override
-    public Optional<Resource> loadAsResource(String filename) {
+    public void delete(String filename) {
         try {
-            Path file = rootLocation.resolve(filename);
-            Resource resource = new UrlResource(file.toUri());
-            if (resource.exists() || resource.isReadable()) {
-                return Optional.of(resource);
-            } else {
-                return Optional.empty();
-            }
-        } catch (MalformedURLException e) {
-            log.debug("Could not read file: {}", filename, e);
-            return Optional.empty();
+            Files.deleteIfExists(layout.resolve(filename));
+            Files.deleteIfExists(layout.root().resolve(filename));
+        } catch (IOException e) {
+            throw new StorageException("Failed to delete file", e);
         }
     }
 }
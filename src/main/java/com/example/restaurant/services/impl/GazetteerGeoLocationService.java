@@ -0,0 +1,99 @@
+package com.example.restaurant.services.impl;
+
+import com.example.restaurant.domain.GeoLocation;
+import com.example.restaurant.domain.entities.Address;
+import com.example.restaurant.services.GeoLocationService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Resolves addresses against a local gazetteer. The most precise key present
+ * wins: the full postal code, then its outward code (the part before the
+ * space), then city and country, then the city alone. Addresses that match
+ * nothing resolve to {@code null}. Results are cached per full address.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "app.geocoding.provider", havingValue = "gazetteer")
+public class GazetteerGeoLocationService implements GeoLocationService {
+    static final String CACHE_NAME = "geocoding";
+
+    private final GazetteerTable gazetteer;
+    private final Cache<String, Optional<GeoLocation>> cache;
+
+    public GazetteerGeoLocationService(
+            @Value("${app.geocoding.gazetteer.file}") Path gazetteerFile,
+            @Value("${app.geocoding.gazetteer.table:}") String tableFile,
+            @Value("${app.geocoding.cache.maximum-size:10000}") long cacheSize,
+            MeterRegistry meterRegistry) {
+        Path table = tableFile.isBlank()
+                ? gazetteerFile.resolveSibling(gazetteerFile.getFileName() + ".bin")
+                : Path.of(tableFile);
+        try {
+            this.gazetteer = GazetteerTable.load(gazetteerFile, table);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load gazetteer " + gazetteerFile, e);
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    @Override
+    public GeoLocation geoLocate(Address address) {
+        if (address == null) {
+            return null;
+        }
+        return cache.get(cacheKey(address), key -> lookup(address)).orElse(null);
+    }
+
+    private Optional<GeoLocation> lookup(Address address) {
+        for (String key : candidateKeys(address)) {
+            int index = gazetteer.indexOf(key);
+            if (index >= 0) {
+                return Optional.of(GeoLocation.builder()
+                        .latitude((double) gazetteer.latitude(index))
+                        .longitude((double) gazetteer.longitude(index))
+                        .build());
+            }
+        }
+        log.debug("No gazetteer entry for address {}", address);
+        return Optional.empty();
+    }
+
+    private String[] candidateKeys(Address address) {
+        String postalCode = address.getPostalCode() == null ? "" : address.getPostalCode().trim();
+        int space = postalCode.indexOf(' ');
+        String outwardCode = space > 0 ? postalCode.substring(0, space) : "";
+        return Stream.of(
+                        GazetteerTable.normalize(postalCode),
+                        GazetteerTable.normalize(outwardCode),
+                        GazetteerTable.normalize(address.getCity()) + GazetteerTable.normalize(address.getCountry()),
+                        GazetteerTable.normalize(address.getCity()))
+                .filter(key -> !key.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    private String cacheKey(Address address) {
+        return Stream.of(address.getStreetNumber(), address.getStreetName(), address.getUnit(),
+                        address.getCity(), address.getState(), address.getPostalCode(), address.getCountry())
+                .map(part -> part == null ? "" : part.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.joining("|"));
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.restaurant.services.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Read-only gazetteer of place keys to coordinates, compiled from CSV into a
+ * file of fixed-width records sorted by key and memory-mapped for lookups.
+ * Each record is the normalized key padded with zero bytes to
+ * {@link #KEY_WIDTH}, followed by latitude and longitude as floats. Lookups
+ * binary-search the mapping in place without copying records.
+ */
+@Slf4j
+final class GazetteerTable {
+    static final int KEY_WIDTH = 32;
+
+    private static final int MAGIC = 0x475A5431; // "GZT1"
+    private static final int HEADER_SIZE = 12;
+    private static final int RECORD_SIZE = KEY_WIDTH + 2 * Float.BYTES;
+
+    private final MappedByteBuffer records;
+    private final int size;
+
+    private GazetteerTable(MappedByteBuffer records, int size) {
+        this.records = records;
+        this.size = size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Opens the compiled table, compiling it from {@code csv} first when it is
+     * missing, older than the CSV or written by an incompatible version.
+     */
+    static GazetteerTable load(Path csv, Path table) throws IOException {
+        if (!isCurrent(csv, table)) {
+            compile(csv, table);
+        }
+        try (FileChannel channel = FileChannel.open(table, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new GazetteerTable(mapped, mapped.getInt(8));
+        }
+    }
+
+    /**
+     * Returns the index of the record for {@code key}, or -1 when absent. The
+     * key must already be normalized.
+     */
+    int indexOf(String key) {
+        byte[] query = encode(key);
+        if (query == null) {
+            return -1;
+        }
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareAt(middle, query);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    float latitude(int index) {
+        return records.getFloat(offset(index) + KEY_WIDTH);
+    }
+
+    float longitude(int index) {
+        return records.getFloat(offset(index) + KEY_WIDTH + Float.BYTES);
+    }
+
+    /**
+     * Upper-cases letters and digits and drops everything else, so
+     * {@code "sw1a 1aa"} and {@code "SW1A1AA"} share a key.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder key = new StringBuilder(text.length());
+        text.toUpperCase(Locale.ROOT).codePoints()
+                .filter(Character::isLetterOrDigit)
+                .forEach(key::appendCodePoint);
+        return key.toString();
+    }
+
+    private int compareAt(int index, byte[] query) {
+        int offset = offset(index);
+        for (int i = 0; i < KEY_WIDTH; i++) {
+            byte queryByte = i < query.length ? query[i] : 0;
+            int comparison = Byte.compareUnsigned(records.get(offset + i), queryByte);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return 0;
+    }
+
+    private static int offset(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    private static byte[] encode(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        return bytes.length == 0 || bytes.length > KEY_WIDTH ? null : bytes;
+    }
+
+    private static boolean isCurrent(Path csv, Path table) throws IOException {
+        if (!Files.isRegularFile(table)
+                || Files.getLastModifiedTime(table).compareTo(Files.getLastModifiedTime(csv)) < 0) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(table, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+            return header.remaining() == HEADER_SIZE
+                    && header.getInt() == MAGIC
+                    && header.getInt() == KEY_WIDTH
+                    && channel.size() == HEADER_SIZE + (long) header.getInt() * RECORD_SIZE;
+        }
+    }
+
+    /**
+     * Compiles {@code key,latitude,longitude} rows into a sorted table. The
+     * last two columns are the coordinates and every column before them forms
+     * the key, so {@code London,United Kingdom,51.5072,-0.1276} is keyed by
+     * city and country. Rows that cannot be parsed, keys longer than
+     * {@link #KEY_WIDTH} bytes and repeated keys are skipped.
+     */
+    static void compile(Path csv, Path table) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        int skipped = 0;
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                Entry entry = parse(line);
+                if (entry == null) {
+                    skipped++;
+                } else {
+                    entries.add(entry);
+                }
+            }
+        }
+        entries.sort(Comparator.comparing(Entry::key, Arrays::compareUnsigned));
+        List<Entry> unique = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            if (!unique.isEmpty() && Arrays.equals(unique.getLast().key(), entry.key())) {
+                skipped++;
+            } else {
+                unique.add(entry);
+            }
+        }
+
+        Path parent = table.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tempFile = Files.createTempFile(parent, ".gazetteer-", ".tmp");
+        try {
+            try (OutputStream file = Files.newOutputStream(tempFile)) {
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file));
+                out.writeInt(MAGIC);
+                out.writeInt(KEY_WIDTH);
+                out.writeInt(unique.size());
+                for (Entry entry : unique) {
+                    out.write(Arrays.copyOf(entry.key(), KEY_WIDTH));
+                    out.writeFloat(entry.latitude());
+                    out.writeFloat(entry.longitude());
+                }
+                out.flush();
+            }
+            Files.move(tempFile, table, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            log.info("Compiled gazetteer {} with {} places ({} rows skipped)", csv, unique.size(), skipped);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private static Entry parse(String line) {
+        String[] columns = line.split(",");
+        if (columns.length < 3) {
+            return null;
+        }
+        try {
+            float latitude = Float.parseFloat(columns[columns.length - 2].trim());
+            float longitude = Float.parseFloat(columns[columns.length - 1].trim());
+            if (Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+                return null;
+            }
+            String key = String.join(",", Arrays.copyOf(columns, columns.length - 2));
+            byte[] encoded = encode(normalize(key));
+            return encoded == null ? null : new Entry(encoded, latitude, longitude);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private record Entry(byte[] key, float latitude, float longitude) {
+    }
+}
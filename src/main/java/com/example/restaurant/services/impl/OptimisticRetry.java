@@ -0,0 +1,45 @@
+package com.example.restaurant.services.impl;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a read-modify-write attempt that relies on Elasticsearch's
+ * {@code _seq_no}/{@code _primary_term} compare-and-set, re-running it with a
+ * short jittered backoff when another writer got there first.
+ */
+final class OptimisticRetry {
+    static final int DEFAULT_MAX_ATTEMPTS = 5;
+    private static final long BASE_BACKOFF_MILLIS = 5;
+
+    private OptimisticRetry() {
+    }
+
+    static <T> T run(Supplier<T> attempt) {
+        return run(DEFAULT_MAX_ATTEMPTS, attempt);
+    }
+
+    static <T> T run(int maxAttempts, Supplier<T> attempt) {
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            try {
+                return attempt.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attemptNumber >= maxAttempts) {
+                    throw e;
+                }
+                backoff(attemptNumber, e);
+            }
+        }
+    }
+
+    private static void backoff(int attemptNumber, OptimisticLockingFailureException conflict) {
+        long ceiling = BASE_BACKOFF_MILLIS << Math.min(attemptNumber, 6);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.restaurant.services.impl;
+
+import com.example.restaurant.domain.PhotoUploadResult;
+import com.example.restaurant.domain.entities.Photo;
+import com.example.restaurant.exceptions.BaseException;
+import com.example.restaurant.exceptions.StorageException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Stores the files of a batch upload concurrently, one virtual thread per
+ * file. A semaphore shared by all batches caps how many storage writes run at
+ * once, so a few large batches cannot saturate the disk.
+ */
+@Component
+@Slf4j
+class PhotoBatchUploader {
+    private final Semaphore permits;
+
+    PhotoBatchUploader(@Value("${app.photos.upload.batch-concurrency:8}") int concurrency) {
+        this.permits = new Semaphore(concurrency);
+    }
+
+    List<PhotoUploadResult> uploadAll(List<MultipartFile> files, Function<MultipartFile, Photo> upload) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Photo>> uploads = files.stream()
+                    .map(file -> executor.submit(() -> withPermit(file, upload)))
+                    .toList();
+            return IntStream.range(0, files.size())
+                    .mapToObj(i -> result(files.get(i), uploads.get(i)))
+                    .toList();
+        }
+    }
+
+    private Photo withPermit(MultipartFile file, Function<MultipartFile, Photo> upload) throws InterruptedException {
+        permits.acquire();
+        try {
+            return upload.apply(file);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private PhotoUploadResult result(MultipartFile file, Future<Photo> upload) {
+        PhotoUploadResult.PhotoUploadResultBuilder result = PhotoUploadResult.builder()
+                .filename(file.getOriginalFilename());
+        try {
+            return result.photo(upload.get()).build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return result.error("Upload was interrupted").build();
+        } catch (ExecutionException e) {
+            log.warn("Failed to store photo {} of batch", file.getOriginalFilename(), e.getCause());
+            return result.error(errorMessage(e.getCause())).build();
+        }
+    }
+
+    private String errorMessage(Throwable cause) {
+        if (cause instanceof StorageException) {
+            return "Unable to save the photo at this time";
+        }
+        if (cause instanceof BaseException && cause.getMessage() != null) {
+            return cause.getMessage();
+        }
+        return "An unexpected error occurred";
+    }
+}
@@ -1,33 +1,115 @@
 package com.example.restaurant.services.impl;
 
+import com.example.restaurant.domain.PhotoResource;
+import com.example.restaurant.domain.PhotoUploadResult;
 import com.example.restaurant.domain.entities.Photo;
+import com.example.restaurant.exceptions.PhotoTooLargeException;
+import com.example.restaurant.exceptions.StorageException;
+import com.example.restaurant.exceptions.UnsupportedPhotoTypeException;
 import com.example.restaurant.services.PhotoService;
 import com.example.restaurant.services.StorageService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
 public class PhotoServiceImpl implements PhotoService {
     private final StorageService storageService;
+    private final PhotoVariantGenerator variantGenerator;
+    private final PhotoBatchUploader batchUploader;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.photos.upload.max-size:10MB}")
+    private DataSize maxUploadSize;
 
     @Override
     public Photo uploadPhoto(MultipartFile file) {
         String photoId = UUID.randomUUID().toString();
         String url = storageService.store(file, photoId);
+        return savedPhoto(url);
+    }
+
+    @Override
+    public Photo uploadPhoto(InputStream content, long contentLength) {
+        long maxBytes = maxUploadSize.toBytes();
+        if (contentLength > maxBytes) {
+            rejected("too_large");
+            throw new PhotoTooLargeException("Photo exceeds the maximum size of " + maxBytes + " bytes");
+        }
+
+        long start = System.nanoTime();
+        String url;
+        try (PhotoUploadStream upload = PhotoUploadStream.open(content, maxBytes)) {
+            url = storageService.store(upload, UUID.randomUUID() + "." + upload.extension());
+            recordUpload(upload.bytesRead(), System.nanoTime() - start);
+        } catch (PhotoTooLargeException e) {
+            rejected("too_large");
+            throw e;
+        } catch (UnsupportedPhotoTypeException e) {
+            rejected("unsupported_type");
+            throw e;
+        } catch (IOException e) {
+            throw new StorageException("Failed to read uploaded photo", e);
+        }
+        return savedPhoto(url);
+    }
+
+    @Override
+    public List<PhotoUploadResult> uploadPhotos(List<MultipartFile> files) {
+        return batchUploader.uploadAll(files, this::uploadPhoto);
+    }
+
+    private Photo savedPhoto(String url) {
+        variantGenerator.submit(url);
         Photo photo = new Photo();
         photo.setUrl(url);
         photo.setUploadDate(LocalDateTime.now());
         return photo;
     }
 
+    private void recordUpload(long bytes, long elapsedNanos) {
+        meterRegistry.timer("photo.upload").record(elapsedNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("photo.upload.size")
+                .baseUnit("bytes")
+                .register(meterRegistry)
+                .record(bytes);
+        if (elapsedNanos > 0) {
+            DistributionSummary.builder("photo.upload.throughput")
+                    .baseUnit("bytes_per_second")
+                    .register(meterRegistry)
+                    .record(bytes * 1e9 / elapsedNanos);
+        }
+    }
+
+    private void rejected(String reason) {
+        meterRegistry.counter("photo.upload.rejected", "reason", reason).increment();
+    }
+
     @Override
-    public Optional<Resource> getPhotoAsResource(String id) {
-        return storageService.loadAsResource(id);
+    public Optional<PhotoResource> getPhotoAsResource(String id, Integer width) {
+        Optional<String> variant = width == null ? Optional.empty() : variantGenerator.variantFor(id, width);
+        if (variant.isPresent()) {
+            Optional<Resource> resource = storageService.loadAsResource(variant.get());
+            if (resource.isPresent()) {
+                return resource.map(photo -> new PhotoResource(photo, false,
+                        storageService.contentHash(variant.get()).orElse(null)));
+            }
+        }
+        return storageService.loadAsResource(id)
+                .map(photo -> new PhotoResource(photo, variant.isPresent() && variantGenerator.isPending(id),
+                        storageService.contentHash(id).orElse(null)));
     }
 }
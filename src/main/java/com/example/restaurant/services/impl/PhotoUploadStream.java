@@ -0,0 +1,108 @@
+package com.example.restaurant.services.impl;
+
+import com.example.restaurant.exceptions.PhotoTooLargeException;
+import com.example.restaurant.exceptions.UnsupportedPhotoTypeException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Upload body that identifies the image format from its leading magic bytes
+ * and fails as soon as more than {@code maxBytes} have been read, so an
+ * oversized or mislabelled upload is rejected without being read to the end.
+ */
+class PhotoUploadStream extends FilterInputStream {
+    private static final int SIGNATURE_LENGTH = 12;
+    private static final byte[] JPEG = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] GIF87A = "GIF87a".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] GIF89A = "GIF89a".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] RIFF = "RIFF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] WEBP = "WEBP".getBytes(StandardCharsets.US_ASCII);
+
+    private final long maxBytes;
+    private final String extension;
+    private long bytesRead;
+
+    private PhotoUploadStream(PushbackInputStream in, long maxBytes, String extension) {
+        super(in);
+        this.maxBytes = maxBytes;
+        this.extension = extension;
+    }
+
+    static PhotoUploadStream open(InputStream body, long maxBytes) throws IOException {
+        PushbackInputStream in = new PushbackInputStream(body, SIGNATURE_LENGTH);
+        byte[] signature = in.readNBytes(SIGNATURE_LENGTH);
+        in.unread(signature);
+        return new PhotoUploadStream(in, maxBytes, extensionFor(signature));
+    }
+
+    String extension() {
+        return extension;
+    }
+
+    long bytesRead() {
+        return bytesRead;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        int read = super.read(bytes, offset, length);
+        if (read > 0) {
+            count(read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void count(long read) {
+        bytesRead += read;
+        if (bytesRead > maxBytes) {
+            throw new PhotoTooLargeException("Photo exceeds the maximum size of " + maxBytes + " bytes");
+        }
+    }
+
+    private static String extensionFor(byte[] signature) {
+        if (startsWith(signature, 0, JPEG)) {
+            return "jpg";
+        }
+        if (startsWith(signature, 0, PNG)) {
+            return "png";
+        }
+        if (startsWith(signature, 0, GIF87A) || startsWith(signature, 0, GIF89A)) {
+            return "gif";
+        }
+        if (startsWith(signature, 0, RIFF) && startsWith(signature, 8, WEBP)) {
+            return "webp";
+        }
+        throw new UnsupportedPhotoTypeException("Photo must be a JPEG, PNG, GIF or WebP image");
+    }
+
+    private static boolean startsWith(byte[] bytes, int offset, byte[] prefix) {
+        return bytes.length >= offset + prefix.length
+                && Arrays.equals(bytes, offset, offset + prefix.length, prefix, 0, prefix.length);
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.restaurant.services.impl;
+
+import com.example.restaurant.services.StorageService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Produces fixed-width variants of uploaded photos on a bounded worker pool.
+ * Variants are stored next to the original as {@code <name>_w<width>.<ext>}.
+ * Widths the original is not wider than, and formats ImageIO cannot write,
+ * get no variant; the original is served for them instead. When the queue is
+ * full the upload is skipped and the original keeps being served. Images
+ * whose header declares more than {@code max-pixels} pixels are never decoded.
+ */
+@Component
+@Slf4j
+class PhotoVariantGenerator {
+    private final StorageService storageService;
+    private final List<Integer> widths;
+    private final long maxPixels;
+    private final ThreadPoolExecutor executor;
+    private final Timer generationTimer;
+    private final Counter rejected;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    PhotoVariantGenerator(
+            StorageService storageService,
+            @Value("${app.photos.variants.widths:160,480,1080}") List<Integer> widths,
+            @Value("${app.photos.variants.threads:2}") int threads,
+            @Value("${app.photos.variants.queue-capacity:100}") int queueCapacity,
+            @Value("${app.photos.variants.max-pixels:40000000}") long maxPixels,
+            MeterRegistry meterRegistry) {
+        this.storageService = storageService;
+        this.widths = widths.stream().sorted().toList();
+        this.maxPixels = maxPixels;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("photo-variants-"));
+        this.generationTimer = Timer.builder("photo.variants.generation")
+                .description("Time to produce all variants of one uploaded photo")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("photo.variants.rejected")
+                .description("Uploads skipped because the variant queue was full")
+                .register(meterRegistry);
+        Gauge.builder("photo.variants.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Uploads waiting for variant generation")
+                .register(meterRegistry);
+    }
+
+    void submit(String filename) {
+        pending.add(filename);
+        try {
+            executor.execute(() -> {
+                try {
+                    generationTimer.record(() -> generate(filename));
+                } finally {
+                    pending.remove(filename);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(filename);
+            rejected.increment();
+            log.warn("Variant queue is full, serving only the original of {}", filename);
+        }
+    }
+
+    /**
+     * Returns the name of the smallest variant at least {@code requestedWidth}
+     * wide, or empty when only the original is large enough.
+     */
+    Optional<String> variantFor(String filename, int requestedWidth) {
+        return widths.stream()
+                .filter(width -> width >= requestedWidth)
+                .findFirst()
+                .map(width -> variantName(filename, width));
+    }
+
+    /**
+     * Whether variants of {@code filename} may still appear. Once this is
+     * false, a variant that does not exist never will.
+     */
+    boolean isPending(String filename) {
+        return pending.contains(filename);
+    }
+
+    static String variantName(String filename, int width) {
+        String extension = StringUtils.getFilenameExtension(filename);
+        String base = StringUtils.stripFilenameExtension(filename);
+        return extension == null ? base + "_w" + width : base + "_w" + width + "." + extension;
+    }
+
+    private void generate(String filename) {
+        Optional<Resource> original = storageService.loadAsResource(filename);
+        String format = StringUtils.getFilenameExtension(filename);
+        if (original.isEmpty() || format == null) {
+            return;
+        }
+        try {
+            BufferedImage image = decode(original.get(), filename);
+            if (image == null) {
+                return;
+            }
+            for (int width : widths) {
+                if (image.getWidth() <= width) {
+                    break;
+                }
+                byte[] variant = encode(resize(image, width), format);
+                if (variant == null) {
+                    break;
+                }
+                storageService.store(new ByteArrayInputStream(variant), variantName(filename, width));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to generate variants for {}", filename, e);
+        }
+    }
+
+    /**
+     * Decodes the image straight from storage, reading its dimensions from
+     * the header first so a small file that inflates to a huge raster is
+     * rejected before any pixels are allocated.
+     */
+    private BufferedImage decode(Resource original, String filename) throws IOException {
+        try (InputStream in = original.getInputStream();
+             ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                log.debug("No image reader for {}, skipping variants", filename);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    log.warn("{} declares {} pixels, over the {} limit, skipping variants",
+                            filename, pixels, maxPixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage resize(BufferedImage source, int width) {
+        BufferedImage current = source;
+        // Halving in steps keeps large reductions from aliasing with bilinear sampling.
+        while (current.getWidth() / 2 >= width) {
+            current = scale(current, current.getWidth() / 2);
+        }
+        return current.getWidth() == width ? current : scale(current, width);
+    }
+
+    private BufferedImage scale(BufferedImage source, int width) {
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage scaled = new BufferedImage(width, height, type);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private byte[] encode(BufferedImage image, String format) throws IOException {
+        String formatName = format.toLowerCase(Locale.ROOT);
+        BufferedImage output = image;
+        if ((formatName.equals("jpg") || formatName.equals("jpeg")) && image.getColorModel().hasAlpha()) {
+            output = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = output.createGraphics();
+            try {
+                graphics.drawImage(image, 0, 0, null);
+            } finally {
+                graphics.dispose();
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (!ImageIO.write(output, formatName, out)) {
+            log.debug("No image writer for format {}", formatName);
+            return null;
+        }
+        return out.toByteArray();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -3,10 +3,12 @@ package com.example.restaurant.services.impl;
 import com.example.restaurant.domain.GeoLocation;
 import com.example.restaurant.domain.entities.Address;
 import com.example.restaurant.services.GeoLocationService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import java.util.Random;
 
 @Service
+@ConditionalOnProperty(name = "app.geocoding.provider", havingValue = "random", matchIfMissing = true)
 public class RandomLondonGeoLocationService implements GeoLocationService {
     private static final float MIN_LATITUDE = 51.28f;
     private static final float MAX_LATITUDE = 51.686f;
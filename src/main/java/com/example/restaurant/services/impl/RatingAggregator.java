@@ -0,0 +1,123 @@
+package com.example.restaurant.services.impl;
+
+import com.example.restaurant.exceptions.RestaurantNotFoundException;
+import com.example.restaurant.repositories.RestaurantRepository;
+import com.example.restaurant.repositories.ReviewRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a restaurant's rating aggregates in step with its reviews after each
+ * review write. A change that still fails after a few attempts, or that finds
+ * the restaurant gone, marks the restaurant stale instead of being lost;
+ * stale restaurants are re-aggregated from the reviews index in the
+ * background, and the reviews of a deleted restaurant are removed. Stale
+ * marks live in memory only, so a restart between the two writes can still
+ * leave drift behind.
+ */
+@Component
+@Slf4j
+class RatingAggregator {
+    static final int MAX_ATTEMPTS = 3;
+    private static final long BACKOFF_MILLIS = 50;
+
+    private final RestaurantRepository restaurantRepository;
+    private final ReviewRepository reviewRepository;
+    private final RestaurantSearchCache searchCache;
+    private final RestaurantLookupCoalescer restaurantLookups;
+    private final Set<String> stale = ConcurrentHashMap.newKeySet();
+
+    RatingAggregator(RestaurantRepository restaurantRepository,
+                     ReviewRepository reviewRepository,
+                     RestaurantSearchCache searchCache,
+                     RestaurantLookupCoalescer restaurantLookups,
+                     MeterRegistry meterRegistry) {
+        this.restaurantRepository = restaurantRepository;
+        this.reviewRepository = reviewRepository;
+        this.searchCache = searchCache;
+        this.restaurantLookups = restaurantLookups;
+        Gauge.builder("ratings.stale", stale, Set::size)
+                .description("Restaurants whose rating aggregates wait for re-aggregation")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Moves the restaurant's aggregates by one review rating. Pass
+     * {@code null} as {@code removedRating} for a new review and as
+     * {@code addedRating} for a deleted one.
+     */
+    void ratingChanged(String restaurantId, Integer removedRating, Integer addedRating) {
+        try {
+            applyWithRetry(restaurantId, removedRating, addedRating);
+        } catch (RestaurantNotFoundException e) {
+            stale.add(restaurantId);
+            throw e;
+        } finally {
+            searchCache.ratingChanged(restaurantId);
+            restaurantLookups.invalidate(restaurantId);
+        }
+    }
+
+    private void applyWithRetry(String restaurantId, Integer removedRating, Integer addedRating) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                restaurantRepository.applyRatingChange(restaurantId, removedRating, addedRating);
+                return;
+            } catch (DataAccessException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    stale.add(restaurantId);
+                    log.warn("Rating change of restaurant {} failed {} times, re-aggregating it later",
+                            restaurantId, attempt, e);
+                    return;
+                }
+            }
+            try {
+                Thread.sleep(BACKOFF_MILLIS * attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stale.add(restaurantId);
+                return;
+            }
+        }
+    }
+
+    boolean isStale(String restaurantId) {
+        return stale.contains(restaurantId);
+    }
+
+    /**
+     * Rebuilds the aggregates of every stale restaurant from its reviews. A
+     * restaurant that fails again stays stale for the next run.
+     */
+    @Scheduled(fixedDelayString = "${app.ratings.reaggregate-interval:PT1M}")
+    void reaggregateStale() {
+        for (String restaurantId : List.copyOf(stale)) {
+            // Cleared first, so a change failing while this runs marks it again.
+            stale.remove(restaurantId);
+            try {
+                reaggregate(restaurantId);
+            } catch (DataAccessException | RestaurantNotFoundException e) {
+                stale.add(restaurantId);
+                log.warn("Failed to re-aggregate ratings of restaurant {}", restaurantId, e);
+            }
+        }
+    }
+
+    private void reaggregate(String restaurantId) {
+        if (restaurantRepository.existsById(restaurantId)) {
+            restaurantRepository.replaceRatingAggregates(restaurantId,
+                    reviewRepository.countByRating(restaurantId));
+        } else {
+            reviewRepository.deleteByRestaurantId(restaurantId);
+        }
+        searchCache.ratingChanged(restaurantId);
+        restaurantLookups.invalidate(restaurantId);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.restaurant.services.impl;
+
+import com.example.restaurant.domain.entities.Restaurant;
+import com.example.restaurant.domain.entities.Review;
+import com.example.restaurant.mappers.RestaurantMapper;
+import com.example.restaurant.mappers.ReviewMapper;
+import com.example.restaurant.repositories.RestaurantRepository;
+import com.example.restaurant.services.RestaurantExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams the restaurants index as NDJSON. Restaurants are read a page at a
+ * time through a point-in-time reader, so deep exports cost the same per page
+ * as the first one. Reviews come from the same reader in restaurant order and
+ * are merged into each line as they arrive, so memory is bounded by one page
+ * of restaurants plus one batch of reviews. Each page is flushed to the
+ * client before the next one is fetched.
+ */
+@Service
+public class RestaurantExportServiceImpl implements RestaurantExportService {
+    private final RestaurantRepository restaurantRepository;
+    private final RestaurantMapper restaurantMapper;
+    private final ReviewMapper reviewMapper;
+    private final ObjectMapper objectMapper;
+    private final int pageSize;
+    private final Counter exportedRecords;
+
+    public RestaurantExportServiceImpl(
+            RestaurantRepository restaurantRepository,
+            RestaurantMapper restaurantMapper,
+            ReviewMapper reviewMapper,
+            ObjectMapper objectMapper,
+            @Value("${app.export.page-size:1000}") int pageSize,
+            MeterRegistry meterRegistry) {
+        this.restaurantRepository = restaurantRepository;
+        this.restaurantMapper = restaurantMapper;
+        this.reviewMapper = reviewMapper;
+        this.objectMapper = objectMapper;
+        this.pageSize = pageSize;
+        this.exportedRecords = Counter.builder("restaurant.export.records")
+                .description("Restaurants written by NDJSON exports")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public long exportRestaurants(OutputStream out, boolean includeReviews) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        long[] exported = {0};
+        try {
+            restaurantRepository.forEachPage(pageSize, includeReviews, (page, reviews) -> {
+                try {
+                    writePage(generator, page, includeReviews ? new ReviewCursor(reviews) : null);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                exported[0] += page.size();
+                exportedRecords.increment(page.size());
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        generator.close();
+        return exported[0];
+    }
+
+    private void writePage(JsonGenerator generator, List<Restaurant> page, ReviewCursor reviews)
+            throws IOException {
+        for (Restaurant restaurant : page) {
+            generator.writeStartObject();
+            Iterator<Map.Entry<String, JsonNode>> fields =
+                    objectMapper.valueToTree(restaurantMapper.toRestaurantDto(restaurant)).fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                generator.writeFieldName(field.getKey());
+                generator.writeTree(field.getValue());
+            }
+            if (reviews != null) {
+                generator.writeArrayFieldStart("reviews");
+                for (Review review = reviews.nextOf(restaurant.getId()); review != null;
+                        review = reviews.nextOf(restaurant.getId())) {
+                    generator.writeObject(reviewMapper.toDto(review));
+                }
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+
+    /**
+     * Walks reviews sorted by restaurant id alongside a page sorted the same
+     * way, one review of lookahead at a time.
+     */
+    private static final class ReviewCursor {
+        private final Iterator<Review> reviews;
+        private Review pending;
+
+        ReviewCursor(Iterator<Review> reviews) {
+            this.reviews = reviews;
+        }
+
+        /**
+         * Returns the next review of {@code restaurantId}, or {@code null}
+         * once the stream has moved past it.
+         */
+        Review nextOf(String restaurantId) {
+            while (pending != null || reviews.hasNext()) {
+                Review review = pending != null ? pending : reviews.next();
+                pending = null;
+                int order = review.getRestaurantId().compareTo(restaurantId);
+                if (order == 0) {
+                    return review;
+                }
+                if (order > 0) {
+                    pending = review;
+                    return null;
+                }
+            }
+            return null;
+        }
+    }
+}
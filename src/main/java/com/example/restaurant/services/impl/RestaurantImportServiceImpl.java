@@ -0,0 +1,259 @@
+package com.example.restaurant.services.impl;
+
+import com.example.restaurant.domain.RestaurantCreateUpdateRequest;
+import com.example.restaurant.domain.RestaurantImportError;
+import com.example.restaurant.domain.RestaurantImportResult;
+import com.example.restaurant.domain.dtos.RestaurantCreateUpdateRequestDto;
+import com.example.restaurant.domain.entities.Restaurant;
+import com.example.restaurant.exceptions.BaseException;
+import com.example.restaurant.mappers.RestaurantMapper;
+import com.example.restaurant.repositories.RestaurantRepository;
+import com.example.restaurant.services.GeoLocationService;
+import com.example.restaurant.services.RestaurantImportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Streams NDJSON restaurant records into the index. Lines are parsed,
+ * validated and geocoded on virtual threads, with at most
+ * {@code geocoding-concurrency} records in flight; reading stops while that
+ * window is full or a {@code _bulk} request is being sent, so memory use does
+ * not depend on the size of the input. Periodic refresh is switched off while
+ * any import runs and the index is refreshed once when the last one finishes.
+ */
+@Service
+@Slf4j
+public class RestaurantImportServiceImpl implements RestaurantImportService {
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final RestaurantRepository restaurantRepository;
+    private final GeoLocationService geoLocationService;
+    private final RestaurantMapper restaurantMapper;
+    private final RestaurantSearchCache searchCache;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int batchSize;
+    private final int geocodingConcurrency;
+    private final Counter importedRecords;
+    private final Counter failedRecords;
+
+    private final Object refreshLock = new Object();
+    private int activeImports;
+    private String suspendedRefreshInterval;
+
+    public RestaurantImportServiceImpl(
+            RestaurantRepository restaurantRepository,
+            GeoLocationService geoLocationService,
+            RestaurantMapper restaurantMapper,
+            RestaurantSearchCache searchCache,
+            ObjectMapper objectMapper,
+            Validator validator,
+            @Value("${app.import.batch-size:1000}") int batchSize,
+            @Value("${app.import.geocoding-concurrency:32}") int geocodingConcurrency,
+            MeterRegistry meterRegistry) {
+        this.restaurantRepository = restaurantRepository;
+        this.geoLocationService = geoLocationService;
+        this.restaurantMapper = restaurantMapper;
+        this.searchCache = searchCache;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.geocodingConcurrency = geocodingConcurrency;
+        this.importedRecords = Counter.builder("restaurant.import.records")
+                .tag("result", "imported")
+                .register(meterRegistry);
+        this.failedRecords = Counter.builder("restaurant.import.records")
+                .tag("result", "failed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public RestaurantImportResult importRestaurants(InputStream ndjson) {
+        suspendRefresh();
+        try {
+            return load(ndjson);
+        } finally {
+            resumeRefresh();
+            searchCache.invalidateAll();
+        }
+    }
+
+    private RestaurantImportResult load(InputStream ndjson) {
+        long started = System.nanoTime();
+        RestaurantImportResult result = new RestaurantImportResult();
+        FirstErrors errors = new FirstErrors();
+        List<PreparedRecord> batch = new ArrayList<>(batchSize);
+        try (ExecutorService geocoders = Executors.newVirtualThreadPerTaskExecutor();
+             BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+            Deque<Future<PreparedRecord>> inFlight = new ArrayDeque<>();
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                long recordLine = lineNumber;
+                String record = line;
+                inFlight.add(geocoders.submit(() -> prepare(recordLine, record)));
+                if (inFlight.size() >= geocodingConcurrency) {
+                    accept(inFlight.poll(), batch, result, errors);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                accept(inFlight.poll(), batch, result, errors);
+            }
+            flush(batch, result, errors);
+        } catch (IOException e) {
+            throw new BaseException("Failed to read restaurant import", e);
+        }
+        result.setErrors(errors.inLineOrder());
+
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        log.info("Imported {} restaurants ({} failed) in {} ms, {} per second", result.getImported(),
+                result.getFailed(), elapsedMillis, result.getImported() * 1000 / elapsedMillis);
+        return result;
+    }
+
+    private PreparedRecord prepare(long line, String json) {
+        try {
+            RestaurantCreateUpdateRequestDto dto = objectMapper.readValue(json, RestaurantCreateUpdateRequestDto.class);
+            Set<ConstraintViolation<RestaurantCreateUpdateRequestDto>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                return PreparedRecord.failed(line, "Validation failed: " + violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+            }
+            RestaurantCreateUpdateRequest request = restaurantMapper.toRestaurantCreateUpdateRequest(dto);
+            Restaurant restaurant = RestaurantServiceImpl.newRestaurant(request,
+                    RestaurantServiceImpl.geoPoint(geoLocationService.geoLocate(request.getAddress())));
+            restaurant.setId(UUID.randomUUID().toString());
+            return new PreparedRecord(line, restaurant, null);
+        } catch (JsonProcessingException e) {
+            return PreparedRecord.failed(line, "Malformed JSON: " + e.getOriginalMessage());
+        } catch (RuntimeException e) {
+            log.debug("Could not prepare restaurant on line {}", line, e);
+            return PreparedRecord.failed(line, "Unable to prepare restaurant: " + e.getMessage());
+        }
+    }
+
+    private void accept(Future<PreparedRecord> pending, List<PreparedRecord> batch, RestaurantImportResult result,
+                        FirstErrors errors) {
+        PreparedRecord record;
+        try {
+            record = pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BaseException("Restaurant import was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new BaseException("Failed to prepare restaurant", e.getCause());
+        }
+        if (record.error() != null) {
+            fail(result, errors, record.line(), record.error());
+            return;
+        }
+        batch.add(record);
+        if (batch.size() >= batchSize) {
+            flush(batch, result, errors);
+        }
+    }
+
+    private void flush(List<PreparedRecord> batch, RestaurantImportResult result, FirstErrors errors) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<String, String> failures = restaurantRepository.bulkIndex(
+                batch.stream().map(PreparedRecord::restaurant).toList());
+        for (PreparedRecord record : batch) {
+            String failure = failures.get(record.restaurant().getId());
+            if (failure == null) {
+                result.setImported(result.getImported() + 1);
+                importedRecords.increment();
+            } else {
+                fail(result, errors, record.line(), failure);
+            }
+        }
+        batch.clear();
+    }
+
+    private void fail(RestaurantImportResult result, FirstErrors errors, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        failedRecords.increment();
+        errors.add(new RestaurantImportError(line, message));
+    }
+
+    private void suspendRefresh() {
+        synchronized (refreshLock) {
+            if (activeImports == 0) {
+                suspendedRefreshInterval = restaurantRepository.suspendRefresh();
+            }
+            activeImports++;
+        }
+    }
+
+    private void resumeRefresh() {
+        synchronized (refreshLock) {
+            activeImports--;
+            if (activeImports == 0) {
+                restaurantRepository.resumeRefresh(suspendedRefreshInterval);
+            }
+        }
+    }
+
+    /**
+     * Keeps the {@link #MAX_REPORTED_ERRORS} errors with the lowest line
+     * numbers. Indexing failures are only known once their batch is sent,
+     * after parse errors on later lines, so arrival order is not line order.
+     */
+    private static final class FirstErrors {
+        private final PriorityQueue<RestaurantImportError> lastLineFirst =
+                new PriorityQueue<>(Comparator.comparingLong(RestaurantImportError::getLine).reversed());
+
+        void add(RestaurantImportError error) {
+            lastLineFirst.add(error);
+            if (lastLineFirst.size() > MAX_REPORTED_ERRORS) {
+                lastLineFirst.poll();
+            }
+        }
+
+        List<RestaurantImportError> inLineOrder() {
+            List<RestaurantImportError> errors = new ArrayList<>(lastLineFirst);
+            errors.sort(Comparator.comparingLong(RestaurantImportError::getLine));
+            return errors;
+        }
+    }
+
+    private record PreparedRecord(long line, Restaurant restaurant, String error) {
+        static PreparedRecord failed(long line, String error) {
+            return new PreparedRecord(line, null, error);
+        }
+    }
+}
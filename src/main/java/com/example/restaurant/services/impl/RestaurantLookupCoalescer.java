@@ -0,0 +1,70 @@
+package com.example.restaurant.services.impl;
+
+import com.example.restaurant.domain.entities.Restaurant;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Collapses concurrent lookups of the same restaurant into one in-flight fetch.
+ * Completed results are kept for {@code app.restaurant-lookup.ttl}; a zero TTL
+ * only coalesces requests that overlap. Invalidating an id also detaches any
+ * fetch still in flight, so callers arriving after a write never join it.
+ */
+@Component
+class RestaurantLookupCoalescer {
+    static final String CACHE_NAME = "restaurantLookup";
+
+    private final AsyncCache<String, Optional<Restaurant>> lookups;
+
+    RestaurantLookupCoalescer(
+            @Value("${app.restaurant-lookup.ttl:PT2S}") Duration ttl,
+            @Value("${app.restaurant-lookup.maximum-size:10000}") long maximumSize,
+            MeterRegistry meterRegistry) {
+        this.lookups = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, lookups, CACHE_NAME);
+    }
+
+    Optional<Restaurant> get(String id, Function<String, Optional<Restaurant>> loader) {
+        CompletableFuture<Optional<Restaurant>> fetch = new CompletableFuture<>();
+        CompletableFuture<Optional<Restaurant>> shared = lookups.get(id, (key, executor) -> fetch);
+        if (shared != fetch) {
+            return join(shared);
+        }
+
+        // Failed fetches are dropped from the cache, so the next caller retries.
+        try {
+            fetch.complete(loader.apply(id));
+        } catch (RuntimeException e) {
+            fetch.completeExceptionally(e);
+        }
+        return join(fetch);
+    }
+
+    void invalidate(String id) {
+        lookups.synchronous().invalidate(id);
+    }
+
+    private static Optional<Restaurant> join(CompletableFuture<Optional<Restaurant>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
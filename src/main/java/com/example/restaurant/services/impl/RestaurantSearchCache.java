@@ -0,0 +1,237 @@
+package com.example.restaurant.services.impl;
+
+import com.example.restaurant.domain.HitCount;
+import com.example.restaurant.domain.RestaurantSearchCriteria;
+import com.example.restaurant.domain.RestaurantSearchResult;
+import com.example.restaurant.domain.entities.MinuteRange;
+import com.example.restaurant.domain.entities.Restaurant;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.geo.GeoPoint;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache of search result pages, keyed by the normalized
+ * search criteria and page. Writes evict every page of each criteria whose
+ * results could change, so later pages never keep a stale offset. Cached pages
+ * are indexed by criteria and by the restaurants they contain, so eviction
+ * costs the number of distinct criteria rather than every cached hit.
+ */
+@Component
+class RestaurantSearchCache {
+    static final String CACHE_NAME = "restaurantSearch";
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double RADIUS_TOLERANCE = 1.01;
+
+    private final Cache<Key, RestaurantSearchResult> cache;
+    private final ConcurrentMap<Criteria, Set<Key>> pagesByCriteria = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<Key>> pagesByRestaurant = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    RestaurantSearchCache(
+            @Value("${app.search-cache.maximum-size:10000}") long maximumSize,
+            @Value("${app.search-cache.ttl:PT1M}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .executor(Runnable::run)
+                .removalListener(this::unindex)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    RestaurantSearchResult get(RestaurantSearchCriteria criteria, Pageable pageable,
+                               Supplier<RestaurantSearchResult> loader) {
+        Key key = Key.of(criteria, pageable);
+        RestaurantSearchResult cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long observedGeneration = generation.get();
+        RestaurantSearchResult result = loader.get();
+        // Indexed before it becomes visible, so its removal always finds the entries to drop.
+        index(key, result);
+        cache.put(key, result);
+        // A write that landed while we were searching may have missed this entry.
+        if (generation.get() != observedGeneration) {
+            cache.asMap().remove(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Evicts results affected by a restaurant being created, updated or deleted.
+     * Either state may be null. Text relevance is not evaluated locally, so any
+     * criteria whose other filters admit the restaurant is evicted.
+     */
+    void restaurantChanged(String restaurantId, Restaurant previous, Restaurant current) {
+        evict(restaurantId, criteria -> criteria.mayMatch(previous) || criteria.mayMatch(current));
+    }
+
+    /**
+     * Evicts results affected by a change to a restaurant's average rating.
+     * Only criteria with a minimum rating can gain or lose the restaurant, and
+     * only faceted results count restaurants per rating.
+     */
+    void ratingChanged(String restaurantId) {
+        evict(restaurantId, criteria -> criteria.minRating() != null || criteria.facets());
+    }
+
+    /**
+     * Drops every cached page, for writes too broad to evict selectively such
+     * as bulk imports.
+     */
+    void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private void evict(String restaurantId, Predicate<Criteria> affected) {
+        generation.incrementAndGet();
+        Set<Criteria> stale = new HashSet<>();
+        pagesByCriteria.keySet().forEach(criteria -> {
+            if (affected.test(criteria)) {
+                stale.add(criteria);
+            }
+        });
+        pagesByRestaurant.getOrDefault(restaurantId, Set.of()).forEach(key -> stale.add(key.criteria()));
+
+        Set<Key> pages = new HashSet<>();
+        stale.forEach(criteria -> pages.addAll(pagesByCriteria.getOrDefault(criteria, Set.of())));
+        if (!pages.isEmpty()) {
+            cache.invalidateAll(pages);
+        }
+    }
+
+    private void index(Key key, RestaurantSearchResult result) {
+        add(pagesByCriteria, key.criteria(), key);
+        result.getPage().getSearchHits().forEach(hit -> add(pagesByRestaurant, hit.getId(), key));
+    }
+
+    private void unindex(Key key, RestaurantSearchResult result, RemovalCause cause) {
+        if (key == null || result == null) {
+            return;
+        }
+        // A replacing put has indexed the same key for its own page; only hits it dropped go.
+        boolean replaced = cause == RemovalCause.REPLACED;
+        Set<String> retained = replaced ? restaurantIds(cache.getIfPresent(key)) : Set.of();
+        if (!replaced) {
+            remove(pagesByCriteria, key.criteria(), key);
+        }
+        result.getPage().getSearchHits().stream()
+                .map(SearchHit::getId)
+                .filter(id -> !retained.contains(id))
+                .forEach(id -> remove(pagesByRestaurant, id, key));
+    }
+
+    private static Set<String> restaurantIds(RestaurantSearchResult result) {
+        if (result == null) {
+            return Set.of();
+        }
+        Set<String> ids = new HashSet<>();
+        result.getPage().getSearchHits().forEach(hit -> ids.add(hit.getId()));
+        return ids;
+    }
+
+    private static <K> void add(ConcurrentMap<K, Set<Key>> index, K indexKey, Key key) {
+        index.compute(indexKey, (ignored, keys) -> {
+            Set<Key> updated = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+            updated.add(key);
+            return updated;
+        });
+    }
+
+    private static <K> void remove(ConcurrentMap<K, Set<Key>> index, K indexKey, Key key) {
+        index.computeIfPresent(indexKey, (ignored, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private record Key(Criteria criteria, int page, int size, Sort sort) {
+        static Key of(RestaurantSearchCriteria criteria, Pageable pageable) {
+            return new Key(Criteria.of(criteria), pageable.getPageNumber(), pageable.getPageSize(),
+                    pageable.getSort());
+        }
+    }
+
+    private record Criteria(String query, Float minRating, Float latitude, Float longitude, Float radius,
+                            String cuisine, String city, Integer openMinute, boolean facets,
+                            HitCount hitCount) {
+        static Criteria of(RestaurantSearchCriteria criteria) {
+            String query = criteria.hasQuery()
+                    ? criteria.getQuery().trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT)
+                    : null;
+            boolean located = criteria.hasLocation();
+            return new Criteria(
+                    query,
+                    criteria.getMinRating(),
+                    located ? criteria.getLatitude() : null,
+                    located ? criteria.getLongitude() : null,
+                    located ? criteria.getRadius() : null,
+                    criteria.hasCuisine() ? criteria.getCuisine() : null,
+                    criteria.hasCity() ? criteria.getCity() : null,
+                    criteria.getOpenAt() == null ? null : MinuteRange.minuteOfWeek(criteria.getOpenAt()),
+                    criteria.isFacets(),
+                    criteria.getHitCount());
+        }
+
+        boolean mayMatch(Restaurant restaurant) {
+            if (restaurant == null) {
+                return false;
+            }
+            if (cuisine != null && restaurant.getCuisineType() != null
+                    && !cuisine.equals(restaurant.getCuisineType())) {
+                return false;
+            }
+            if (city != null && restaurant.getAddress() != null && restaurant.getAddress().getCity() != null
+                    && !city.equals(restaurant.getAddress().getCity())) {
+                return false;
+            }
+            if (openMinute != null && restaurant.getOpeningMinutes() != null
+                    && restaurant.getOpeningMinutes().stream().noneMatch(range -> range.contains(openMinute))) {
+                return false;
+            }
+            if (minRating != null) {
+                float averageRating = restaurant.getAverageRating() == null ? 0f : restaurant.getAverageRating();
+                if (averageRating < minRating) {
+                    return false;
+                }
+            }
+            GeoPoint location = restaurant.getGeoLocation();
+            if (radius != null && location != null) {
+                return distanceKm(location) <= radius * RADIUS_TOLERANCE;
+            }
+            return true;
+        }
+
+        private double distanceKm(GeoPoint location) {
+            double lat1 = Math.toRadians(latitude);
+            double lat2 = Math.toRadians(location.getLat());
+            double deltaLat = lat2 - lat1;
+            double deltaLon = Math.toRadians(location.getLon() - longitude);
+            double a = Math.pow(Math.sin(deltaLat / 2), 2)
+                    + Math.cos(lat1) * Math.cos(lat2) * Math.pow(Math.sin(deltaLon / 2), 2);
+            return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+        }
+    }
+}
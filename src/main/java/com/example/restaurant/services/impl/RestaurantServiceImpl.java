@@ -2,106 +2,262 @@ package com.example.restaurant.services.impl;
 
 import com.example.restaurant.domain.GeoLocation;
 import com.example.restaurant.domain.RestaurantCreateUpdateRequest;
-import com.example.restaurant.domain.entities.Address;
+import com.example.restaurant.domain.RestaurantSearchCriteria;
+import com.example.restaurant.domain.RestaurantSearchResult;
+import com.example.restaurant.domain.SearchSlice;
+import com.example.restaurant.domain.entities.MinuteRange;
+import com.example.restaurant.domain.entities.OperatingHours;
 import com.example.restaurant.domain.entities.Photo;
 import com.example.restaurant.domain.entities.Restaurant;
 import com.example.restaurant.exceptions.RestaurantNotFoundException;
 import com.example.restaurant.repositories.RestaurantRepository;
+import com.example.restaurant.repositories.ReviewRepository;
 import com.example.restaurant.services.GeoLocationService;
 import com.example.restaurant.services.RestaurantService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.geo.GeoPoint;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class RestaurantServiceImpl implements RestaurantService {
+    private static final int MAX_SUGGESTIONS = 20;
+
     private final RestaurantRepository restaurantRepository;
+    private final ReviewRepository reviewRepository;
     private final GeoLocationService geoLocationService;
+    private final RestaurantSearchCache searchCache;
+    private final RestaurantLookupCoalescer restaurantLookups;
+
+    @Value("${app.search.time-zone:Europe/London}")
+    private ZoneId searchTimeZone;
 
     @Override
     public Restaurant createRestaurant(RestaurantCreateUpdateRequest request) {
-        Address address = request.getAddress();
-        GeoLocation geoLocation = geoLocationService.geoLocate(address);
-        GeoPoint geoPoint = new GeoPoint(geoLocation.getLatitude(), geoLocation.getLongitude());
+        GeoPoint geoPoint = geoPoint(geoLocationService.geoLocate(request.getAddress()));
+        Restaurant savedRestaurant = restaurantRepository.save(newRestaurant(request, geoPoint));
+        searchCache.restaurantChanged(savedRestaurant.getId(), null, savedRestaurant);
+        return savedRestaurant;
+    }
+
+    static Restaurant newRestaurant(RestaurantCreateUpdateRequest request, GeoPoint geoPoint) {
         List<String> photoIds = request.getPhotoIds();
         List<Photo> photos = photoIds.stream().map(photoUrl -> Photo.builder()
                 .url(photoUrl)
                 .uploadDate(LocalDateTime.now())
                 .build()).toList();
-        Restaurant restaurant = Restaurant.builder()
+        return Restaurant.builder()
                 .name(request.getName())
                 .cuisineType(request.getCuisineType())
                 .contactInformation(request.getContactInformation())
-                .address(address)
+                .address(request.getAddress())
                 .geoLocation(geoPoint)
                 .operatingHours(request.getOperatingHours())
+                .openingMinutes(openingMinutes(request.getOperatingHours()))
                 .averageRating(0f)
+                .ratingSum(0L)
+                .ratingCount(0)
+                .ratingHistogram(emptyRatingHistogram())
                 .photos(photos)
                 .build();
-        return restaurantRepository.save(restaurant);
     }
 
-    @Override
-    public Page<Restaurant> searchRestaurants(
-            String query, Float minRating, Float latitude, Float longitude, Float radius, Pageable pageable) {
-
-        if(null != minRating && (null == query || query.isEmpty())) {
-            return restaurantRepository.findByAverageRatingGreaterThanEqual(minRating, pageable);
+    /**
+     * Geocoders return null for addresses they cannot resolve; such restaurants
+     * are stored without a location and simply never match distance filters.
+     */
+    static GeoPoint geoPoint(GeoLocation geoLocation) {
+        if (geoLocation == null) {
+            return null;
         }
+        return new GeoPoint(geoLocation.getLatitude(), geoLocation.getLongitude());
+    }
 
-        Float searchMinRating = minRating == null ? 0f : minRating;
+    private static List<MinuteRange> openingMinutes(OperatingHours operatingHours) {
+        return operatingHours == null ? new ArrayList<>() : operatingHours.toMinuteOfWeekRanges();
+    }
 
-        if (query != null && !query.trim().isEmpty()) {
-            return restaurantRepository.findByQueryAndMinRating(query, searchMinRating, pageable);
+    private static Map<String, Integer> emptyRatingHistogram() {
+        Map<String, Integer> histogram = new HashMap<>();
+        for (int star = 1; star <= 5; star++) {
+            histogram.put(String.valueOf(star), 0);
         }
+        return histogram;
+    }
+
+    @Override
+    public RestaurantSearchResult searchRestaurants(RestaurantSearchCriteria criteria, Pageable pageable) {
+        RestaurantSearchCriteria resolved = resolveOpenNow(criteria);
+        return searchCache.get(resolved, pageable, () -> restaurantRepository.search(resolved, pageable));
+    }
+
+    /**
+     * Cursor slices bypass the search cache: its entries are keyed and evicted
+     * by page, and infinite scroll rarely asks for the same slice twice.
+     */
+    @Override
+    public SearchSlice<SearchHit<Restaurant>> searchRestaurants(RestaurantSearchCriteria criteria,
+                                                                List<Object> searchAfter, int size) {
+        return restaurantRepository.searchAfter(resolveOpenNow(criteria), searchAfter, size);
+    }
 
-        if (latitude != null && longitude != null && radius != null) {
-            return restaurantRepository.findByLocationNear(latitude, longitude, radius, pageable);
+    /**
+     * Returns a copy of the criteria with {@code openNow} pinned to the current
+     * minute, leaving the caller's criteria untouched.
+     */
+    private RestaurantSearchCriteria resolveOpenNow(RestaurantSearchCriteria criteria) {
+        if (!criteria.isOpenNow() || criteria.getOpenAt() != null) {
+            return criteria;
         }
+        return criteria.toBuilder()
+                .openAt(LocalDateTime.now(searchTimeZone).truncatedTo(ChronoUnit.MINUTES))
+                .build();
+    }
 
-        return restaurantRepository.findAll(pageable);
+    @Override
+    public List<Restaurant> suggestRestaurants(String prefix, int size) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        return restaurantRepository.suggest(prefix.trim(), Math.min(Math.max(size, 1), MAX_SUGGESTIONS));
     }
 
     @Override
     public Optional<Restaurant> getRestaurant(String id) {
-        return restaurantRepository.findById(id);
+        return restaurantLookups.get(id, restaurantRepository::findById);
     }
 
+    /**
+     * Diffs the request against the stored restaurant and writes only the
+     * fields that changed. The address is geocoded again only when it changed,
+     * and photos already attached keep their original metadata.
+     */
     @Override
     public Restaurant updateRestaurant(String id, RestaurantCreateUpdateRequest request) {
-        Restaurant existingRestaurant = getRestaurant(id)
-                .orElseThrow(() -> new RestaurantNotFoundException("Restaurant with ID does not exist: " + id));
+        return update(id, existingRestaurant -> request);
+    }
 
-        GeoLocation newGeoLocation = geoLocationService.geoLocate(request.getAddress());
-        GeoPoint newGeoPoint = new GeoPoint(newGeoLocation.getLatitude(), newGeoLocation.getLongitude());
+    @Override
+    public Restaurant patchRestaurant(String id, RestaurantCreateUpdateRequest changes) {
+        return update(id, existingRestaurant -> RestaurantCreateUpdateRequest.builder()
+                .name(patched(changes.getName(), existingRestaurant.getName()))
+                .cuisineType(patched(changes.getCuisineType(), existingRestaurant.getCuisineType()))
+                .contactInformation(patched(changes.getContactInformation(),
+                        existingRestaurant.getContactInformation()))
+                .address(patched(changes.getAddress(), existingRestaurant.getAddress()))
+                .operatingHours(patched(changes.getOperatingHours(), existingRestaurant.getOperatingHours()))
+                .photoIds(patched(changes.getPhotoIds(), photoUrls(existingRestaurant.getPhotos())))
+                .build());
+    }
 
-        List<Photo> photos = request.getPhotoIds().stream().map(photoUrl ->
-                Photo.builder()
+    private static <T> T patched(T change, T current) {
+        return change != null ? change : current;
+    }
+
+    /**
+     * Brings the stored restaurant in line with the request built from it and
+     * writes only the fields that differ, so unchanged fields are never sent
+     * or re-geocoded.
+     */
+    private Restaurant update(String id, Function<Restaurant, RestaurantCreateUpdateRequest> requestFor) {
+        return OptimisticRetry.run(() -> {
+            Restaurant existingRestaurant = restaurantRepository.findById(id)
+                    .orElseThrow(() -> new RestaurantNotFoundException("Restaurant with ID does not exist: " + id));
+            RestaurantCreateUpdateRequest request = requestFor.apply(existingRestaurant);
+            Restaurant previous = Restaurant.builder()
+                    .cuisineType(existingRestaurant.getCuisineType())
+                    .address(existingRestaurant.getAddress())
+                    .averageRating(existingRestaurant.getAverageRating())
+                    .geoLocation(existingRestaurant.getGeoLocation())
+                    .openingMinutes(existingRestaurant.getOpeningMinutes())
+                    .build();
+
+            Set<String> changedFields = new LinkedHashSet<>();
+            if (!Objects.equals(existingRestaurant.getName(), request.getName())) {
+                existingRestaurant.setName(request.getName());
+                changedFields.add("name");
+            }
+            if (!Objects.equals(existingRestaurant.getCuisineType(), request.getCuisineType())) {
+                existingRestaurant.setCuisineType(request.getCuisineType());
+                changedFields.add("cuisineType");
+            }
+            if (!Objects.equals(existingRestaurant.getContactInformation(), request.getContactInformation())) {
+                existingRestaurant.setContactInformation(request.getContactInformation());
+                changedFields.add("contactInformation");
+            }
+            if (!Objects.equals(existingRestaurant.getAddress(), request.getAddress())) {
+                existingRestaurant.setAddress(request.getAddress());
+                existingRestaurant.setGeoLocation(geoPoint(geoLocationService.geoLocate(request.getAddress())));
+                changedFields.add("address");
+                changedFields.add("geoLocation");
+            }
+            if (!Objects.equals(existingRestaurant.getOperatingHours(), request.getOperatingHours())) {
+                existingRestaurant.setOperatingHours(request.getOperatingHours());
+                existingRestaurant.setOpeningMinutes(openingMinutes(request.getOperatingHours()));
+                changedFields.add("operatingHours");
+                changedFields.add("openingMinutes");
+            }
+            List<Photo> photos = mergePhotos(existingRestaurant.getPhotos(), request.getPhotoIds());
+            if (!photoUrls(photos).equals(photoUrls(existingRestaurant.getPhotos()))) {
+                existingRestaurant.setPhotos(photos);
+                changedFields.add("photos");
+            }
+
+            if (changedFields.isEmpty()) {
+                return existingRestaurant;
+            }
+            restaurantRepository.updateFields(existingRestaurant, changedFields);
+            searchCache.restaurantChanged(id, previous, existingRestaurant);
+            restaurantLookups.invalidate(id);
+            return existingRestaurant;
+        });
+    }
+
+    /**
+     * Orders photos as requested, reusing stored photos by URL so their upload
+     * dates survive the update.
+     */
+    private List<Photo> mergePhotos(List<Photo> existingPhotos, List<String> photoIds) {
+        Map<String, Photo> existingByUrl = new HashMap<>();
+        if (existingPhotos != null) {
+            existingPhotos.forEach(photo -> existingByUrl.putIfAbsent(photo.getUrl(), photo));
+        }
+        List<String> requestedUrls = photoIds == null ? List.of() : photoIds;
+        return requestedUrls.stream()
+                .map(photoUrl -> existingByUrl.getOrDefault(photoUrl, Photo.builder()
                         .url(photoUrl)
                         .uploadDate(LocalDateTime.now())
-                        .build()
-        ).collect(Collectors.toList());
+                        .build()))
+                .collect(Collectors.toList());
+    }
 
-        existingRestaurant.setName(request.getName());
-        existingRestaurant.setCuisineType(request.getCuisineType());
-        existingRestaurant.setContactInformation(request.getContactInformation());
-        existingRestaurant.setAddress(request.getAddress());
-        existingRestaurant.setGeoLocation(newGeoPoint);
-        existingRestaurant.setOperatingHours(request.getOperatingHours());
-        existingRestaurant.setPhotos(photos);
-        return restaurantRepository.save(existingRestaurant);
+    private List<String> photoUrls(List<Photo> photos) {
+        return photos == null ? List.of() : photos.stream().map(Photo::getUrl).toList();
     }
 
     @Override
     public void deleteRestaurant(String id) {
+        Restaurant previous = restaurantRepository.findById(id).orElse(null);
         restaurantRepository.deleteById(id);
+        reviewRepository.deleteByRestaurantId(id);
+        searchCache.restaurantChanged(id, previous, null);
+        restaurantLookups.invalidate(id);
     }
 
 }
@@ -1,36 +1,43 @@
 package com.example.restaurant.services.impl;
 
 import com.example.restaurant.domain.ReviewCreateUpdateRequest;
+import com.example.restaurant.domain.SearchSlice;
 import com.example.restaurant.domain.entities.Photo;
-import com.example.restaurant.domain.entities.Restaurant;
 import com.example.restaurant.domain.entities.Review;
 import com.example.restaurant.domain.entities.User;
 import com.example.restaurant.exceptions.RestaurantNotFoundException;
 import com.example.restaurant.exceptions.ReviewNotAllowedException;
 import com.example.restaurant.repositories.RestaurantRepository;
+import com.example.restaurant.repositories.ReviewRepository;
 import com.example.restaurant.services.ReviewService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.elasticsearch.ResourceNotFoundException;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ReviewServiceImpl implements ReviewService {
+    private static final String DEFAULT_REVIEW_SORT_FIELD = "datePosted";
+    private static final Set<String> SORTABLE_REVIEW_FIELDS = Set.of(DEFAULT_REVIEW_SORT_FIELD, "rating");
+
     private final RestaurantRepository restaurantRepository;
+    private final ReviewRepository reviewRepository;
+    private final RatingAggregator ratingAggregator;
 
     @Override
     public Review createReview(User author, String restaurantId, ReviewCreateUpdateRequest createReview) {
-        Restaurant restaurant = getRestaurantOrThrow(restaurantId);
+        ensureRestaurantExists(restaurantId);
 
-        boolean hasExistingReview = restaurant.getReviews().stream()
-                .anyMatch(r -> r.getWrittenBy().getId().equals(author.getId()));
+        boolean hasExistingReview = reviewRepository.existsByRestaurantIdAndWrittenById(restaurantId, author.getId());
         if (hasExistingReview) {
             throw new ReviewNotAllowedException("User has already reviewed this restaurant");
         }
@@ -44,7 +51,8 @@ public class ReviewServiceImpl implements ReviewService {
         }).collect(Collectors.toList());
 
         Review review = Review.builder()
-                .id(UUID.randomUUID().toString())
+                .id(reviewId(restaurantId, author))
+                .restaurantId(restaurantId)
                 .content(createReview.getContent())
                 .rating(createReview.getRating())
                 .photos(photos)
@@ -53,131 +61,167 @@ public class ReviewServiceImpl implements ReviewService {
                 .writtenBy(author)
                 .build();
 
-        restaurant.getReviews().add(review);
-
-        updateRestaurantAverageRating(restaurant);
+        try {
+            reviewRepository.create(review);
+        } catch (DuplicateKeyException e) {
+            throw new ReviewNotAllowedException("User has already reviewed this restaurant");
+        }
 
-        Restaurant updatedRestaurant = restaurantRepository.save(restaurant);
+        ratingAggregator.ratingChanged(restaurantId, null, review.getRating());
 
-        return updatedRestaurant.getReviews().stream()
-                .filter(r -> r.getDatePosted().equals(review.getDatePosted()))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Error retrieving created review"));
+        return review;
     }
 
-    private Restaurant getRestaurantOrThrow(String restaurantId) {
-        return restaurantRepository.findById(restaurantId)
-                .orElseThrow(() -> new RestaurantNotFoundException("Restaurant not found with id: " + restaurantId));
+    /**
+     * One review per user and restaurant, so the pair is the id and a second
+     * concurrent create fails in Elasticsearch instead of slipping past the
+     * existence check. Reviews written before this scheme keep random ids,
+     * which the existence check still covers.
+     */
+    private static String reviewId(String restaurantId, User author) {
+        return restaurantId + ":" + author.getId();
     }
 
-    private void updateRestaurantAverageRating(Restaurant restaurant) {
-        List<Review> reviews = restaurant.getReviews();
-        if (reviews.isEmpty()) {
-            restaurant.setAverageRating(0.0f);
-        } else {
-            float averageRating = (float) reviews.stream()
-                    .mapToDouble(Review::getRating)
-                    .average()
-                    .orElse(0.0);
-            restaurant.setAverageRating(averageRating);
+    private void ensureRestaurantExists(String restaurantId) {
+        if (!restaurantRepository.existsById(restaurantId)) {
+            throw new RestaurantNotFoundException("Restaurant not found with id: " + restaurantId);
         }
     }
 
+    private Optional<Review> findRestaurantReview(String restaurantId, String reviewId) {
+        return reviewRepository.findById(reviewId)
+                .filter(review -> restaurantId.equals(review.getRestaurantId()));
+    }
+
     @Override
     public Page<Review> listReviews(String restaurantId, Pageable pageable) {
 
-        Restaurant restaurant = getRestaurantOrThrow(restaurantId);
-
-        List<Review> reviews = new ArrayList<>(restaurant.getReviews());
+        ensureRestaurantExists(restaurantId);
 
-        Sort sort = pageable.getSort();
-        if (sort.isSorted()) {
-            Sort.Order order = sort.iterator().next();
-            String property = order.getProperty();
-            boolean isAscending = order.getDirection().isAscending();
-            Comparator<Review> comparator = switch (property) {
-                case "datePosted" -> Comparator.comparing(Review::getDatePosted);
-                case "rating" -> Comparator.comparing(Review::getRating);
-                default -> Comparator.comparing(Review::getDatePosted);
-            };
-            reviews.sort(isAscending ? comparator : comparator.reversed());
-        } else {
+        return reviewRepository.findByRestaurantId(restaurantId, toReviewPageable(pageable));
+    }
 
-            reviews.sort(Comparator.comparing(Review::getDatePosted).reversed());
-        }
+    @Override
+    public SearchSlice<Review> listReviews(String restaurantId, List<Object> searchAfter, Pageable pageable) {
 
-        int start = (int) pageable.getOffset();
+        ensureRestaurantExists(restaurantId);
 
-        if (start >= reviews.size()) {
-            return new PageImpl<>(Collections.emptyList(), pageable, reviews.size());
-        }
-        int end = Math.min((start + pageable.getPageSize()), reviews.size());
+        return reviewRepository.findByRestaurantIdAfter(restaurantId, toReviewPageable(pageable).getSort(),
+                searchAfter, pageable.getPageSize());
+    }
 
-        return new PageImpl<>(reviews.subList(start, end), pageable, reviews.size());
+    private Pageable toReviewPageable(Pageable pageable) {
+        Sort.Order requested = pageable.getSort().stream()
+                .findFirst()
+                .orElse(Sort.Order.desc(DEFAULT_REVIEW_SORT_FIELD));
+        String property = SORTABLE_REVIEW_FIELDS.contains(requested.getProperty())
+                ? requested.getProperty()
+                : DEFAULT_REVIEW_SORT_FIELD;
+        Sort sort = Sort.by(new Sort.Order(requested.getDirection(), property), Sort.Order.asc("id"));
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
     }
 
     @Override
     public Optional<Review> getRestaurantReview(String restaurantId, String reviewId) {
-        Restaurant restaurant = getRestaurantOrThrow(restaurantId);
-        return restaurant.getReviews().stream()
-                .filter(r -> reviewId.equals(r.getId()))
-                .findFirst();
+        ensureRestaurantExists(restaurantId);
+        return findRestaurantReview(restaurantId, reviewId);
     }
 
     @Override
     public Review updateReview(User user, String restaurantId, String reviewId,
                                ReviewCreateUpdateRequest updatedReview) {
+        return update(user, restaurantId, reviewId, existingReview -> updatedReview);
+    }
 
-        Restaurant restaurant = getRestaurantOrThrow(restaurantId);
-        String currentUserId = user.getId();
-
-        List<Review> reviews = restaurant.getReviews();
-        Review existingReview = reviews.stream()
-                .filter(r -> r.getId().equals(reviewId) &&
-                        r.getWrittenBy().getId().equals(currentUserId))
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException("Review not found"));
-
-        if (LocalDateTime.now().isAfter(existingReview.getDatePosted().plusHours(48))) {
-            throw new ReviewNotAllowedException("Review can no longer be edited (48-hour limit exceeded)");
-        }
+    @Override
+    public Review patchReview(User user, String restaurantId, String reviewId,
+                              ReviewCreateUpdateRequest changes) {
+        return update(user, restaurantId, reviewId, existingReview -> ReviewCreateUpdateRequest.builder()
+                .content(patched(changes.getContent(), existingReview.getContent()))
+                .rating(patched(changes.getRating(), existingReview.getRating()))
+                .photoIds(patched(changes.getPhotoIds(), photoUrls(existingReview.getPhotos())))
+                .build());
+    }
 
-        existingReview.setContent(updatedReview.getContent());
-        existingReview.setRating(updatedReview.getRating());
-        existingReview.setLastEdited(LocalDateTime.now());
+    private static <T> T patched(T change, T current) {
+        return change != null ? change : current;
+    }
 
-        existingReview.setPhotos(updatedReview.getPhotoIds().stream()
-                .map(url -> {
-                    Photo photo = new Photo();
-                    photo.setUrl(url);
-                    photo.setUploadDate(LocalDateTime.now());
-                    return photo;
-                }).collect(Collectors.toList()));
+    /**
+     * Brings the stored review in line with the request built from it and
+     * writes only the fields that differ. The restaurant's rating aggregates
+     * are touched only when the rating itself changed.
+     */
+    private Review update(User user, String restaurantId, String reviewId,
+                          Function<Review, ReviewCreateUpdateRequest> requestFor) {
 
-        updateRestaurantAverageRating(restaurant);
+        ensureRestaurantExists(restaurantId);
+        String currentUserId = user.getId();
 
-        Restaurant savedRestaurant = restaurantRepository.save(restaurant);
+        return OptimisticRetry.run(() -> {
+            Review existingReview = findRestaurantReview(restaurantId, reviewId)
+                    .filter(r -> r.getWrittenBy().getId().equals(currentUserId))
+                    .orElseThrow(() -> new ResourceNotFoundException("Review not found"));
+
+            if (LocalDateTime.now().isAfter(existingReview.getDatePosted().plusHours(48))) {
+                throw new ReviewNotAllowedException("Review can no longer be edited (48-hour limit exceeded)");
+            }
+
+            ReviewCreateUpdateRequest updatedReview = requestFor.apply(existingReview);
+            Integer previousRating = existingReview.getRating();
+            Set<String> changedFields = new LinkedHashSet<>();
+            if (!Objects.equals(existingReview.getContent(), updatedReview.getContent())) {
+                existingReview.setContent(updatedReview.getContent());
+                changedFields.add("content");
+            }
+            if (!Objects.equals(previousRating, updatedReview.getRating())) {
+                existingReview.setRating(updatedReview.getRating());
+                changedFields.add("rating");
+            }
+            List<String> photoIds = updatedReview.getPhotoIds() == null ? List.of() : updatedReview.getPhotoIds();
+            if (!photoIds.equals(photoUrls(existingReview.getPhotos()))) {
+                existingReview.setPhotos(photoIds.stream()
+                        .map(url -> {
+                            Photo photo = new Photo();
+                            photo.setUrl(url);
+                            photo.setUploadDate(LocalDateTime.now());
+                            return photo;
+                        }).collect(Collectors.toList()));
+                changedFields.add("photos");
+            }
+
+            if (changedFields.isEmpty()) {
+                return existingReview;
+            }
+            existingReview.setLastEdited(LocalDateTime.now());
+            changedFields.add("lastEdited");
+            reviewRepository.updateFields(existingReview, changedFields);
+
+            if (changedFields.contains("rating")) {
+                ratingAggregator.ratingChanged(restaurantId, previousRating, existingReview.getRating());
+            }
+
+            return existingReview;
+        });
+    }
 
-        return savedRestaurant.getReviews().stream()
-                .filter(r -> r.getId().equals(reviewId))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Error retrieving updated review"));
+    private List<String> photoUrls(List<Photo> photos) {
+        return photos == null ? List.of() : photos.stream().map(Photo::getUrl).toList();
     }
 
     @Override
     public void deleteReview(String restaurantId, String reviewId) {
 
-        Restaurant restaurant = getRestaurantOrThrow(restaurantId);
-
-        List<Review> filteredReviews = restaurant.getReviews().stream()
-                .filter(review -> !reviewId.equals(review.getId()))
-                .toList();
-
-        restaurant.setReviews(filteredReviews);
-
-        updateRestaurantAverageRating(restaurant);
+        ensureRestaurantExists(restaurantId);
 
-        restaurantRepository.save(restaurant);
+        OptimisticRetry.run(() -> {
+            findRestaurantReview(restaurantId, reviewId).ifPresent(review -> {
+                if (reviewRepository.deleteIfUnchanged(review)) {
+                    ratingAggregator.ratingChanged(restaurantId, review.getRating(), null);
+                }
+            });
+            return null;
+        });
     }
 
 }
@@ -0,0 +1,171 @@
+package com.example.restaurant.services.impl;
+
+import com.example.restaurant.exceptions.StorageException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Directory layout shared by the storage implementations. Logical names are
+ * flat, but files are fanned out into {@code shardDepth} levels of two-character
+ * directories taken from the start of the name ({@code ab/cd/abcd...png}), so
+ * no single directory grows with the number of photos. Partially written files
+ * are staged in a hidden temp directory on the same file system so they can be
+ * moved in atomically.
+ */
+@Slf4j
+final class StorageLayout {
+    private static final String TEMP_DIRECTORY = ".tmp";
+
+    private static final int SHARD_WIDTH = 2;
+    private static final long TRANSFER_CHUNK = 1024 * 1024;
+
+    private final Path root;
+    private final Path tempDirectory;
+    private final int shardDepth;
+
+    StorageLayout(String location, int shardDepth) {
+        this.root = Path.of(location).toAbsolutePath().normalize();
+        this.shardDepth = shardDepth;
+        this.tempDirectory = root.resolve(TEMP_DIRECTORY);
+        try {
+            Files.createDirectories(tempDirectory);
+        } catch (IOException e) {
+            throw new StorageException("Failed to initialize storage location", e);
+        }
+    }
+
+    Path root() {
+        return root;
+    }
+
+    int shardDepth() {
+        return shardDepth;
+    }
+
+    /**
+     * Physical location of the logical {@code filename}. Names must be a single
+     * path segment; anything else is rejected.
+     */
+    Path resolve(String filename) {
+        if (!isPlainName(filename)) {
+            throw new StorageException("Cannot store file outside current directory");
+        }
+        return shard(root, filename);
+    }
+
+    /**
+     * Location of {@code name} under {@code directory} in the sharded layout.
+     * Names too short or not starting with letters and digits stay flat.
+     */
+    Path shard(Path directory, String name) {
+        int prefixLength = shardDepth * SHARD_WIDTH;
+        if (name.length() <= prefixLength) {
+            return directory.resolve(name);
+        }
+        String prefix = name.substring(0, prefixLength).toLowerCase(Locale.ROOT);
+        if (!prefix.chars().allMatch(Character::isLetterOrDigit)) {
+            return directory.resolve(name);
+        }
+        Path file = directory;
+        for (int level = 0; level < shardDepth; level++) {
+            file = file.resolve(prefix.substring(level * SHARD_WIDTH, (level + 1) * SHARD_WIDTH));
+        }
+        return file.resolve(name);
+    }
+
+    Path createTempFile() throws IOException {
+        return Files.createTempFile(tempDirectory, "upload-", ".tmp");
+    }
+
+    Path tempPath() {
+        return tempDirectory.resolve("staged-" + System.nanoTime() + "-" + Thread.currentThread().threadId());
+    }
+
+    /**
+     * Copies {@code content} into {@code file} through channels, so the only
+     * buffering is the channel's own transfer buffer.
+     */
+    void write(InputStream content, Path file) throws IOException {
+        ReadableByteChannel source = Channels.newChannel(content);
+        try (FileChannel target = FileChannel.open(file,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = 0;
+            long transferred;
+            while ((transferred = target.transferFrom(source, position, TRANSFER_CHUNK)) > 0) {
+                position += transferred;
+            }
+        }
+    }
+
+    void moveIntoPlace(Path source, Path destination) throws IOException {
+        Files.createDirectories(destination.getParent());
+        Files.move(source, destination, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Loads {@code filename} from its sharded location, falling back to the flat
+     * location for files the shard migration has not moved yet. The sharded
+     * path is checked again last so a file moved between the two lookups is
+     * still found.
+     */
+    Optional<Resource> loadAsResource(String filename) {
+        if (!isPlainName(filename)) {
+            return Optional.empty();
+        }
+        Path sharded = shard(root, filename);
+        Path flat = root.resolve(filename);
+        return Stream.of(sharded, flat, sharded)
+                .filter(Files::isRegularFile)
+                .findFirst()
+                .flatMap(file -> toResource(file, filename));
+    }
+
+    private Optional<Resource> toResource(Path file, String filename) {
+        try {
+            Resource resource = new UrlResource(file.toUri());
+            return resource.isReadable() ? Optional.of(resource) : Optional.empty();
+        } catch (MalformedURLException e) {
+            log.debug("Could not read file: {}", filename, e);
+            return Optional.empty();
+        }
+    }
+
+    boolean isPlainName(String filename) {
+        return root.equals(root.resolve(filename).normalize().getParent());
+    }
+
+    static String filenameFor(MultipartFile file, String filename) {
+        if (file.isEmpty()) {
+            throw new StorageException("Failed to store empty file");
+        }
+        String extension = StringUtils.getFilenameExtension(file.getOriginalFilename());
+        return filename + "." + extension;
+    }
+
+    static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Could not delete temporary file: {}", file, e);
+        }
+    }
+}
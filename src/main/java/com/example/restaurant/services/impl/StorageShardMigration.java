@@ -0,0 +1,105 @@
+package com.example.restaurant.services.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * Moves files stored flat under the storage root (and content-addressed blobs
+ * and references) into the sharded layout while the application keeps serving. Lookups fall
+ * back to the flat location, and each file is moved by linking it into place
+ * before unlinking the flat name, so readers always find one of the two and a
+ * newer sharded file is never overwritten.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.migrations.storage-shards.enabled", havingValue = "true", matchIfMissing = true)
+class StorageShardMigration {
+    private static final List<String> HIDDEN_DIRECTORIES =
+            List.of(ContentAddressedStorageService.BLOB_DIRECTORY, ContentAddressedStorageService.REFERENCE_DIRECTORY);
+
+    private final StorageLayout layout;
+
+    StorageShardMigration(
+            @Value("${app.storage.location:storage}") String storageLocation,
+            @Value("${app.storage.shard-depth:0}") int shardDepth) {
+        this.layout = new StorageLayout(storageLocation, shardDepth);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        if (layout.shardDepth() == 0) {
+            return;
+        }
+        Thread.ofPlatform().daemon().name("storage-shard-migration").start(() -> {
+            try {
+                int moved = migrate();
+                if (moved > 0) {
+                    log.info("Moved {} stored files into the sharded layout", moved);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Storage shard migration stopped, it will resume on next start", e);
+            }
+        });
+    }
+
+    int migrate() throws IOException {
+        int moved = migrate(layout.root());
+        for (String hidden : HIDDEN_DIRECTORIES) {
+            Path directory = layout.root().resolve(hidden);
+            if (Files.isDirectory(directory)) {
+                moved += migrate(directory);
+            }
+        }
+        return moved;
+    }
+
+    private int migrate(Path directory) throws IOException {
+        int moved = 0;
+        // Entries are moved as they are read, so a large flat directory is never listed into memory.
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, StorageShardMigration::isFlatFile)) {
+            for (Path file : entries) {
+                Path target = layout.shard(directory, file.getFileName().toString());
+                if (!target.equals(file) && move(file, target)) {
+                    moved++;
+                }
+            }
+        }
+        return moved;
+    }
+
+    private static boolean isFlatFile(Path entry) {
+        return Files.isRegularFile(entry) && !entry.getFileName().toString().startsWith(".");
+    }
+
+    private boolean move(Path file, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try {
+            Files.createLink(target, file);
+        } catch (FileAlreadyExistsException e) {
+            // A newer copy was written to the sharded location; the flat one is stale.
+            Files.deleteIfExists(file);
+            return false;
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            if (Files.exists(target)) {
+                Files.deleteIfExists(file);
+                return false;
+            }
+            Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        }
+        Files.deleteIfExists(file);
+        return true;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.restaurant.controllers;
+
+import com.example.restaurant.exceptions.InvalidCursorException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorCodecTest {
+    private static final String SHAPE = "restaurants|italian";
+
+    private final CursorCodec cursorCodec = new CursorCodec(new ObjectMapper());
+
+    @Test
+    void roundTripsSortValuesThroughAnUrlSafeCursor() {
+        List<Object> searchAfter = List.of(1.7254f, 1718000000000L, "b2f8c1e4-restaurant");
+
+        String cursor = cursorCodec.encode(searchAfter, SHAPE);
+
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+        assertThat(cursorCodec.decode(cursor, SHAPE)).containsExactly(1.7254, 1718000000000L, "b2f8c1e4-restaurant");
+    }
+
+    @Test
+    void emptyCursorStartsFromTheFirstPage() {
+        assertThat(cursorCodec.decode("", SHAPE)).isNull();
+        assertThat(cursorCodec.encode(null, SHAPE)).isNull();
+    }
+
+    @Test
+    void rejectsCursorsItDidNotIssue() {
+        String notAnArray = Base64.getUrlEncoder().encodeToString("{\"page\":2}".getBytes());
+
+        assertThatThrownBy(() -> cursorCodec.decode("not base64!", SHAPE)).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> cursorCodec.decode(notAnArray, SHAPE)).isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void rejectsCursorsFromAnotherSortOrFilter() {
+        String cursor = cursorCodec.encode(List.of(4, "review-id"), "reviews|r1|rating: DESC");
+
+        assertThatThrownBy(() -> cursorCodec.decode(cursor, "reviews|r1|datePosted: DESC"))
+                .isInstanceOf(InvalidCursorException.class)
+                .hasMessageContaining("different sort or filters");
+    }
+}
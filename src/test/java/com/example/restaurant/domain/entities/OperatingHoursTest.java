@@ -0,0 +1,50 @@
+package com.example.restaurant.domain.entities;
+
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OperatingHoursTest {
+
+    @Test
+    void sameDayHoursBecomeOneRange() {
+        OperatingHours hours = OperatingHours.builder()
+                .tuesday(new TimeRange("09:00", "17:30"))
+                .build();
+
+        assertThat(hours.toMinuteOfWeekRanges())
+                .containsExactly(new MinuteRange(1440 + 540, 1440 + 1050));
+    }
+
+    @Test
+    void overnightHoursRunIntoTheNextDay() {
+        OperatingHours hours = OperatingHours.builder()
+                .friday(new TimeRange("18:00", "02:00"))
+                .build();
+
+        MinuteRange range = hours.toMinuteOfWeekRanges().get(0);
+        assertThat(range.contains(MinuteRange.minuteOfWeek(LocalDateTime.parse("2026-10-17T01:30")))).isTrue();
+        assertThat(range.contains(MinuteRange.minuteOfWeek(LocalDateTime.parse("2026-10-17T02:00")))).isFalse();
+    }
+
+    @Test
+    void sundayNightWrapsToMondayMorning() {
+        OperatingHours hours = OperatingHours.builder()
+                .sunday(new TimeRange("20:00", "01:00"))
+                .build();
+
+        assertThat(hours.toMinuteOfWeekRanges()).containsExactly(
+                new MinuteRange(6 * 1440 + 1200, MinuteRange.MINUTES_PER_WEEK),
+                new MinuteRange(0, 60));
+    }
+
+    @Test
+    void identicalOpenAndCloseMeansOpenAllDay() {
+        OperatingHours hours = OperatingHours.builder()
+                .monday(new TimeRange("00:00", "00:00"))
+                .build();
+
+        assertThat(hours.toMinuteOfWeekRanges()).containsExactly(new MinuteRange(0, 1440));
+    }
+}
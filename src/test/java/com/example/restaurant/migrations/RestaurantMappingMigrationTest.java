@@ -0,0 +1,47 @@
+package com.example.restaurant.migrations;
+
+import org.junit.jupiter.api.Test;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RestaurantMappingMigrationTest {
+    private static final Map<String, Object> EXPECTED = Map.of("properties", Map.of(
+            "name", Map.of("type", "text", "fields", Map.of(
+                    "keyword", Map.of("type", "keyword"),
+                    "suggest", Map.of("type", "search_as_you_type"))),
+            "averageRating", Map.of("type", "float")));
+
+    @Test
+    void upToDateWhenEveryFieldAndSubfieldIsMapped() {
+        Map<String, Object> current = Map.of("properties", Map.of(
+                "name", Map.of("type", "text", "fields", Map.of(
+                        "keyword", Map.of("type", "keyword"),
+                        "suggest", Map.of("type", "search_as_you_type"),
+                        "legacy", Map.of("type", "keyword"))),
+                "averageRating", Map.of("type", "float"),
+                "reviews", Map.of("type", "nested")));
+
+        assertThat(RestaurantMappingMigration.isUpToDate(current, EXPECTED)).isTrue();
+    }
+
+    @Test
+    void outdatedWhenAFieldIsMissing() {
+        Map<String, Object> current = Map.of("properties", Map.of(
+                "name", Map.of("type", "text", "fields", Map.of(
+                        "keyword", Map.of("type", "keyword"),
+                        "suggest", Map.of("type", "search_as_you_type")))));
+
+        assertThat(RestaurantMappingMigration.isUpToDate(current, EXPECTED)).isFalse();
+        assertThat(RestaurantMappingMigration.isUpToDate(Map.of(), EXPECTED)).isFalse();
+    }
+
+    @Test
+    void outdatedWhenASubfieldIsMissing() {
+        Map<String, Object> current = Map.of("properties", Map.of(
+                "name", Map.of("type", "text", "fields", Map.of("keyword", Map.of("type", "keyword"))),
+                "averageRating", Map.of("type", "float")));
+
+        assertThat(RestaurantMappingMigration.isUpToDate(current, EXPECTED)).isFalse();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.restaurant.repositories;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import com.example.restaurant.domain.RestaurantSearchCriteria;
+import com.example.restaurant.domain.entities.Restaurant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RestaurantRepositoryCustomImplTest {
+    private final ElasticsearchOperations elasticsearchOperations = mock(ElasticsearchOperations.class);
+    private RestaurantRepositoryCustomImpl repository;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(elasticsearchOperations.search(any(Query.class), eq(Restaurant.class)))
+                .thenReturn(mock(SearchHits.class));
+        repository = new RestaurantRepositoryCustomImpl(elasticsearchOperations, mock(ElasticsearchClient.class));
+    }
+
+    @Test
+    void searchFetchesOnlySummaryFields() {
+        repository.search(RestaurantSearchCriteria.builder().query("pasta").build(), PageRequest.of(0, 20));
+        repository.searchAfter(RestaurantSearchCriteria.builder().query("pasta").build(), null, 20);
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(elasticsearchOperations, times(2)).search(queries.capture(), eq(Restaurant.class));
+        assertThat(queries.getAllValues()).allSatisfy(query -> {
+            assertThat(query.getSourceFilter().getIncludes())
+                    .containsExactly("name", "cuisineType", "averageRating", "ratingCount", "address", "photos");
+            assertThat(query.getSourceFilter().getExcludes()).isNullOrEmpty();
+        });
+    }
+
+    @Test
+    void suggestFetchesOnlyTheName() {
+        repository.suggest("pi", 5);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(elasticsearchOperations).search(query.capture(), eq(Restaurant.class));
+        assertThat(query.getValue().getSourceFilter().getIncludes()).containsExactly("name");
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.restaurant.services.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingStorageServiceTest {
+    @TempDir
+    Path storage;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CachingStorageService storageService;
+
+    @BeforeEach
+    void setUp() {
+        FileSystemStorageService backend = new FileSystemStorageService();
+        ReflectionTestUtils.setField(backend, "storageLocation", storage.toString());
+        backend.init();
+        storageService = new CachingStorageService(backend, DataSize.ofKilobytes(1), DataSize.ofBytes(100),
+                meterRegistry);
+    }
+
+    @Test
+    void servesRepeatReadsFromMemory() throws Exception {
+        storageService.store(stream("hero image"), "hero.jpg");
+
+        Resource first = storageService.loadAsResource("hero.jpg").orElseThrow();
+        Files.delete(storage.resolve("hero.jpg"));
+        Resource second = storageService.loadAsResource("hero.jpg").orElseThrow();
+
+        assertThat(first.isFile()).isFalse();
+        assertThat(second.getContentAsString(StandardCharsets.UTF_8)).isEqualTo("hero image");
+        assertThat(second.getFilename()).isEqualTo("hero.jpg");
+        assertThat(meterRegistry.get("cache.gets").tag("cache", CachingStorageService.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void storingAFileReplacesTheCachedBytes() throws Exception {
+        storageService.store(stream("old"), "hero.jpg");
+        storageService.loadAsResource("hero.jpg");
+
+        storageService.store(stream("new"), "hero.jpg");
+
+        assertThat(storageService.loadAsResource("hero.jpg").orElseThrow()
+                .getContentAsString(StandardCharsets.UTF_8)).isEqualTo("new");
+    }
+
+    @Test
+    void leavesLargeFilesOnTheBackend() {
+        storageService.store(stream("x".repeat(200)), "large.jpg");
+
+        assertThat(storageService.loadAsResource("large.jpg").orElseThrow().isFile()).isTrue();
+        assertThat(storageService.loadAsResource("missing.jpg")).isEmpty();
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
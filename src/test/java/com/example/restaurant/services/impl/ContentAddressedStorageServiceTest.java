@@ -0,0 +1,136 @@
+package com.example.restaurant.services.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentAddressedStorageServiceTest {
+    @TempDir
+    Path storage;
+
+    private ContentAddressedStorageService storageService;
+
+    @BeforeEach
+    void setUp() {
+        storageService = new ContentAddressedStorageService();
+        ReflectionTestUtils.setField(storageService, "storageLocation", storage.toString());
+        storageService.init();
+    }
+
+    @Test
+    void storesIdenticalContentOnce() throws Exception {
+        storageService.store(stream("same bytes"), "a.jpg");
+        storageService.store(stream("same bytes"), "b.jpg");
+        storageService.store(stream("other bytes"), "c.jpg");
+
+        try (Stream<Path> blobs = Files.list(storage.resolve(".blobs"))) {
+            assertThat(blobs).hasSize(2);
+        }
+        assertThat(Files.isSameFile(storage.resolve("a.jpg"), storage.resolve("b.jpg"))).isTrue();
+        assertThat(Files.isSameFile(storage.resolve("a.jpg"), storage.resolve("c.jpg"))).isFalse();
+        assertThat(storageService.loadAsResource("b.jpg").orElseThrow().getContentAsByteArray())
+                .isEqualTo("same bytes".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void overwritingANameReleasesItsReference() throws Exception {
+        storageService.store(stream("first"), "a.jpg");
+        storageService.store(stream("first"), "b.jpg");
+
+        storageService.store(stream("second"), "a.jpg");
+
+        assertThat(Files.isSameFile(storage.resolve("a.jpg"), storage.resolve("b.jpg"))).isFalse();
+        assertThat(Files.readString(storage.resolve("b.jpg"))).isEqualTo("first");
+        try (Stream<Path> staged = Files.list(storage.resolve(".tmp"))) {
+            assertThat(staged).isEmpty();
+        }
+    }
+
+    @Test
+    void deletingTheLastNameDeletesTheBlob() throws Exception {
+        storageService.store(stream("same bytes"), "a.jpg");
+        storageService.store(stream("same bytes"), "b.jpg");
+
+        storageService.delete("a.jpg");
+
+        assertThat(blobs()).hasSize(1);
+        assertThat(storageService.loadAsResource("b.jpg")).isPresent();
+
+        storageService.delete("b.jpg");
+
+        assertThat(blobs()).isEmpty();
+        assertThat(storageService.loadAsResource("b.jpg")).isEmpty();
+    }
+
+    @Test
+    void deletingTheLastReferenceDeletesTheBlobWithoutHardLinks() throws Exception {
+        ReflectionTestUtils.setField(storageService, "hardLinksSupported", false);
+        storageService.store(stream("same bytes"), "a.jpg");
+        storageService.store(stream("same bytes"), "b.jpg");
+
+        storageService.delete("a.jpg");
+
+        assertThat(blobs()).hasSize(1);
+
+        storageService.delete("b.jpg");
+
+        assertThat(blobs()).isEmpty();
+    }
+
+    @Test
+    void overwritingTheLastNameDeletesTheOldBlob() throws Exception {
+        storageService.store(stream("first"), "a.jpg");
+
+        storageService.store(stream("second"), "a.jpg");
+
+        assertThat(blobs()).hasSize(1);
+        assertThat(Files.readString(storage.resolve("a.jpg"))).isEqualTo("second");
+    }
+
+    @Test
+    void fallsBackToBlobReferencesWithoutHardLinks() throws Exception {
+        ReflectionTestUtils.setField(storageService, "hardLinksSupported", false);
+
+        storageService.store(stream("same bytes"), "a.jpg");
+        storageService.store(stream("same bytes"), "b.jpg");
+
+        assertThat(storage.resolve("a.jpg")).doesNotExist();
+        try (Stream<Path> blobs = Files.list(storage.resolve(".blobs"))) {
+            assertThat(blobs).hasSize(1);
+        }
+        assertThat(storageService.loadAsResource("b.jpg").orElseThrow().getContentAsByteArray())
+                .isEqualTo("same bytes".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void reportsTheContentHashInBothModes() throws Exception {
+        storageService.store(stream("same bytes"), "a.jpg");
+        ReflectionTestUtils.setField(storageService, "hardLinksSupported", false);
+        storageService.store(stream("same bytes"), "b.jpg");
+
+        assertThat(storageService.contentHash("a.jpg"))
+                .contains("58100dc8fc06562ce3e578231dc948e083520ee49c4b4ee5a5a28bb4b4003feb");
+        assertThat(storageService.contentHash("b.jpg")).isEqualTo(storageService.contentHash("a.jpg"));
+        assertThat(storageService.contentHash("missing.jpg")).isEmpty();
+    }
+
+    private List<Path> blobs() throws IOException {
+        try (Stream<Path> files = Files.walk(storage.resolve(".blobs"))) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
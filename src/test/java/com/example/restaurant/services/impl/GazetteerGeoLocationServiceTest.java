@@ -0,0 +1,76 @@
+package com.example.restaurant.services.impl;
+
+import com.example.restaurant.domain.GeoLocation;
+import com.example.restaurant.domain.entities.Address;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class GazetteerGeoLocationServiceTest {
+    @TempDir
+    Path directory;
+
+    private GazetteerGeoLocationService geocoder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path csv = directory.resolve("gazetteer.csv");
+        Files.writeString(csv, """
+                postcode,latitude,longitude
+                SW1A 1AA,51.501009,-0.141588
+                SW1A,51.5010,-0.1416
+                EC1A,51.5200,-0.0970
+                Manchester,United Kingdom,53.4808,-2.2426
+                not a row
+                """);
+        geocoder = new GazetteerGeoLocationService(csv, "", 100, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void prefersTheFullPostalCode() {
+        GeoLocation location = geocoder.geoLocate(address("sw1a1aa", "London"));
+
+        assertThat(location.getLatitude()).isCloseTo(51.501009, within(1e-5));
+        assertThat(location.getLongitude()).isCloseTo(-0.141588, within(1e-5));
+    }
+
+    @Test
+    void fallsBackToOutwardCodeThenCity() {
+        assertThat(geocoder.geoLocate(address("EC1A 9ZZ", "London")).getLatitude())
+                .isCloseTo(51.52, within(1e-4));
+        assertThat(geocoder.geoLocate(address("M1 1AA", "Manchester")).getLongitude())
+                .isCloseTo(-2.2426, within(1e-4));
+    }
+
+    @Test
+    void returnsNullForUnknownPlaces() {
+        assertThat(geocoder.geoLocate(address("ZZ9 9ZZ", "Atlantis"))).isNull();
+    }
+
+    @Test
+    void reusesTheCompiledTable() throws Exception {
+        Path table = directory.resolve("gazetteer.csv.bin");
+        long compiledAt = Files.getLastModifiedTime(table).toMillis();
+
+        GazetteerTable reopened = GazetteerTable.load(directory.resolve("gazetteer.csv"), table);
+
+        assertThat(reopened.size()).isEqualTo(4);
+        assertThat(Files.getLastModifiedTime(table).toMillis()).isEqualTo(compiledAt);
+    }
+
+    private static Address address(String postalCode, String city) {
+        return Address.builder()
+                .streetNumber("1")
+                .streetName("High Street")
+                .city(city)
+                .postalCode(postalCode)
+                .country("United Kingdom")
+                .build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.restaurant.services.impl;
+
+import com.example.restaurant.domain.PhotoUploadResult;
+import com.example.restaurant.domain.entities.Photo;
+import com.example.restaurant.exceptions.UnsupportedPhotoTypeException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PhotoBatchUploaderTest {
+    @Test
+    void reportsEachFileInOrderIncludingFailures() {
+        PhotoBatchUploader uploader = new PhotoBatchUploader(4);
+        List<MultipartFile> files = List.of(file("a.jpg"), file("bad.txt"), file("c.jpg"));
+
+        List<PhotoUploadResult> results = uploader.uploadAll(files, file -> {
+            if (file.getOriginalFilename().endsWith(".txt")) {
+                throw new UnsupportedPhotoTypeException("Photo must be a JPEG, PNG, GIF or WebP image");
+            }
+            Photo photo = new Photo();
+            photo.setUrl(file.getOriginalFilename());
+            return photo;
+        });
+
+        assertThat(results).extracting(PhotoUploadResult::getFilename).containsExactly("a.jpg", "bad.txt", "c.jpg");
+        assertThat(results.get(0).getPhoto().getUrl()).isEqualTo("a.jpg");
+        assertThat(results.get(1).getPhoto()).isNull();
+        assertThat(results.get(1).getError()).isEqualTo("Photo must be a JPEG, PNG, GIF or WebP image");
+        assertThat(results.get(2).getError()).isNull();
+    }
+
+    @Test
+    void capsConcurrentWrites() {
+        PhotoBatchUploader uploader = new PhotoBatchUploader(2);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<MultipartFile> files = IntStream.range(0, 20).mapToObj(i -> file(i + ".jpg")).toList();
+
+        uploader.uploadAll(files, file -> {
+            peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            active.decrementAndGet();
+            return new Photo();
+        });
+
+        assertThat(peak.get()).isBetween(1, 2);
+    }
+
+    private static MultipartFile file(String name) {
+        return new MockMultipartFile("files", name, "image/jpeg", new byte[]{1});
+    }
+}
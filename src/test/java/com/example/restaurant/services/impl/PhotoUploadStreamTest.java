@@ -0,0 +1,51 @@
+package com.example.restaurant.services.impl;
+
+import com.example.restaurant.exceptions.PhotoTooLargeException;
+import com.example.restaurant.exceptions.UnsupportedPhotoTypeException;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PhotoUploadStreamTest {
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    @Test
+    void detectsFormatWithoutConsumingTheBody() throws IOException {
+        byte[] body = Arrays.copyOf(PNG_SIGNATURE, 64);
+
+        try (PhotoUploadStream upload = PhotoUploadStream.open(new ByteArrayInputStream(body), 100)) {
+            assertThat(upload.extension()).isEqualTo("png");
+            assertThat(upload.readAllBytes()).isEqualTo(body);
+            assertThat(upload.bytesRead()).isEqualTo(64);
+        }
+    }
+
+    @Test
+    void detectsWebp() throws IOException {
+        byte[] body = "RIFF\0\0\0\0WEBPVP8 ".getBytes(StandardCharsets.US_ASCII);
+
+        assertThat(PhotoUploadStream.open(new ByteArrayInputStream(body), 100).extension()).isEqualTo("webp");
+    }
+
+    @Test
+    void rejectsUnknownFormats() {
+        InputStream body = new ByteArrayInputStream("<svg></svg>".getBytes(StandardCharsets.US_ASCII));
+
+        assertThatThrownBy(() -> PhotoUploadStream.open(body, 100))
+                .isInstanceOf(UnsupportedPhotoTypeException.class);
+    }
+
+    @Test
+    void failsOnceTheLimitIsExceeded() throws IOException {
+        PhotoUploadStream upload = PhotoUploadStream.open(
+                new ByteArrayInputStream(Arrays.copyOf(PNG_SIGNATURE, 101)), 100);
+
+        assertThatThrownBy(upload::readAllBytes).isInstanceOf(PhotoTooLargeException.class);
+    }
+}
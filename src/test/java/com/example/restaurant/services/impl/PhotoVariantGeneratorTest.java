@@ -0,0 +1,83 @@
+package com.example.restaurant.services.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class PhotoVariantGeneratorTest {
+    @TempDir
+    Path storage;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PhotoVariantGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        FileSystemStorageService storageService = new FileSystemStorageService();
+        ReflectionTestUtils.setField(storageService, "storageLocation", storage.toString());
+        storageService.init();
+        generator = new PhotoVariantGenerator(storageService, List.of(1080, 160, 480), 1, 10, 1_000_000,
+                meterRegistry);
+    }
+
+    @Test
+    void producesEachConfiguredWidthWithoutUpscaling() throws Exception {
+        ImageIO.write(new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB), "png",
+                storage.resolve("photo.png").toFile());
+
+        generator.submit("photo.png");
+
+        await().atMost(Duration.ofSeconds(10))
+                .until(() -> meterRegistry.get("photo.variants.generation").timer().count() == 1);
+        assertThat(ImageIO.read(storage.resolve("photo_w160.png").toFile()).getWidth()).isEqualTo(160);
+        assertThat(ImageIO.read(storage.resolve("photo_w480.png").toFile()).getHeight()).isEqualTo(360);
+        assertThat(storage.resolve("photo_w1080.png")).doesNotExist();
+        assertThat(generator.isPending("photo.png")).isFalse();
+    }
+
+    @Test
+    void storesNoVariantsForImagesNarrowerThanEveryWidth() throws Exception {
+        ImageIO.write(new BufferedImage(100, 80, BufferedImage.TYPE_INT_RGB), "png",
+                storage.resolve("small.png").toFile());
+
+        generator.submit("small.png");
+
+        await().atMost(Duration.ofSeconds(10))
+                .until(() -> meterRegistry.get("photo.variants.generation").timer().count() == 1);
+        try (Stream<Path> files = Files.list(storage)) {
+            assertThat(files.filter(Files::isRegularFile).map(path -> path.getFileName().toString()))
+                    .containsOnly("small.png");
+        }
+    }
+
+    @Test
+    void skipsImagesDeclaringMorePixelsThanAllowed() throws Exception {
+        ImageIO.write(new BufferedImage(2000, 600, BufferedImage.TYPE_BYTE_BINARY), "png",
+                storage.resolve("huge.png").toFile());
+
+        generator.submit("huge.png");
+
+        await().atMost(Duration.ofSeconds(10))
+                .until(() -> meterRegistry.get("photo.variants.generation").timer().count() == 1);
+        assertThat(storage.resolve("huge_w160.png")).doesNotExist();
+    }
+
+    @Test
+    void picksSmallestVariantAtLeastAsWideAsRequested() {
+        assertThat(generator.variantFor("photo.png", 200)).contains("photo_w480.png");
+        assertThat(generator.variantFor("photo.png", 160)).contains("photo_w160.png");
+        assertThat(generator.variantFor("photo.png", 2000)).isEmpty();
+    }
+}
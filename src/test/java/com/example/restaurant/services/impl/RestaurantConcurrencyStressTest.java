@@ -0,0 +1,336 @@
+package com.example.restaurant.services.impl;
+
+import com.example.restaurant.domain.GeoLocation;
+import com.example.restaurant.domain.RestaurantCreateUpdateRequest;
+import com.example.restaurant.domain.ReviewCreateUpdateRequest;
+import com.example.restaurant.domain.entities.Address;
+import com.example.restaurant.domain.entities.Restaurant;
+import com.example.restaurant.domain.entities.Review;
+import com.example.restaurant.domain.entities.User;
+import com.example.restaurant.exceptions.ReviewNotAllowedException;
+import com.example.restaurant.repositories.RestaurantRepository;
+import com.example.restaurant.repositories.ReviewRepository;
+import com.example.restaurant.services.GeoLocationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.elasticsearch.ResourceNotFoundException;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Hammers a single restaurant with concurrent full updates while reviewers
+ * race to create and re-rate their reviews through {@link ReviewServiceImpl}.
+ * The repositories are backed by in-memory documents that enforce the same
+ * op_type=create and seq_no compare-and-set rules as Elasticsearch, and the
+ * rating script is replayed as written, so lost or doubled rating changes
+ * show up in the final aggregates.
+ */
+class RestaurantConcurrencyStressTest {
+    private static final String RESTAURANT_ID = "hot-restaurant";
+    private static final int UPDATERS = 8;
+    private static final int WRITES_PER_UPDATER = 50;
+    private static final int REVIEWERS = 8;
+    private static final int THREADS_PER_REVIEWER = 2;
+    private static final int RATINGS_PER_THREAD = 20;
+
+    private final VersionedRestaurantStore store = new VersionedRestaurantStore();
+    private final VersionedReviewStore reviews = new VersionedReviewStore();
+    private RestaurantServiceImpl restaurantService;
+    private ReviewServiceImpl reviewService;
+
+    @BeforeEach
+    void setUp() {
+        RestaurantRepository restaurantRepository = mock(RestaurantRepository.class);
+        when(restaurantRepository.existsById(RESTAURANT_ID)).thenReturn(true);
+        when(restaurantRepository.findById(RESTAURANT_ID))
+                .thenAnswer(invocation -> Optional.of(store.read()));
+        doAnswer(invocation -> {
+            store.compareAndSet(invocation.getArgument(0), invocation.getArgument(1));
+            return null;
+        }).when(restaurantRepository).updateFields(any(Restaurant.class), any());
+        doAnswer(invocation -> {
+            store.applyRatingChange(invocation.getArgument(1), invocation.getArgument(2));
+            return null;
+        }).when(restaurantRepository).applyRatingChange(eq(RESTAURANT_ID), any(), any());
+
+        ReviewRepository reviewRepository = mock(ReviewRepository.class);
+        when(reviewRepository.existsByRestaurantIdAndWrittenById(eq(RESTAURANT_ID), anyString()))
+                .thenAnswer(invocation -> reviews.existsBy(invocation.getArgument(1)));
+        when(reviewRepository.findById(anyString()))
+                .thenAnswer(invocation -> reviews.read(invocation.getArgument(0)));
+        doAnswer(invocation -> {
+            reviews.create(invocation.getArgument(0));
+            return null;
+        }).when(reviewRepository).create(any(Review.class));
+        doAnswer(invocation -> {
+            reviews.compareAndSet(invocation.getArgument(0), invocation.getArgument(1));
+            return null;
+        }).when(reviewRepository).updateFields(any(Review.class), any());
+
+        GeoLocationService geoLocationService = mock(GeoLocationService.class);
+        when(geoLocationService.geoLocate(any()))
+                .thenReturn(GeoLocation.builder().latitude(51.5).longitude(-0.12).build());
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RestaurantSearchCache searchCache = new RestaurantSearchCache(100, Duration.ofMinutes(1), meterRegistry);
+        RestaurantLookupCoalescer restaurantLookups =
+                new RestaurantLookupCoalescer(Duration.ofSeconds(2), 100, meterRegistry);
+        restaurantService = new RestaurantServiceImpl(restaurantRepository, reviewRepository,
+                geoLocationService, searchCache, restaurantLookups);
+        reviewService = new ReviewServiceImpl(restaurantRepository, reviewRepository,
+                new RatingAggregator(restaurantRepository, reviewRepository, searchCache, restaurantLookups,
+                        meterRegistry));
+    }
+
+    @Test
+    void concurrentWritesNeverLoseRatingChanges() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(UPDATERS + REVIEWERS * THREADS_PER_REVIEWER);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger successfulUpdates = new AtomicInteger();
+        AtomicInteger exhaustedUpdates = new AtomicInteger();
+        AtomicInteger createdReviews = new AtomicInteger();
+        AtomicInteger rejectedCreates = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>();
+
+        for (int updater = 0; updater < UPDATERS; updater++) {
+            int updaterNumber = updater;
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int write = 0; write < WRITES_PER_UPDATER; write++) {
+                    try {
+                        restaurantService.updateRestaurant(RESTAURANT_ID,
+                                updateRequest("name-" + updaterNumber + "-" + write));
+                        successfulUpdates.incrementAndGet();
+                    } catch (OptimisticLockingFailureException e) {
+                        exhaustedUpdates.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (int reviewer = 0; reviewer < REVIEWERS; reviewer++) {
+            User author = new User("user-" + reviewer, "user-" + reviewer, "Reviewer", String.valueOf(reviewer));
+            for (int thread = 0; thread < THREADS_PER_REVIEWER; thread++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        reviewService.createReview(author, RESTAURANT_ID, reviewRequest(randomRating()));
+                        createdReviews.incrementAndGet();
+                    } catch (ReviewNotAllowedException e) {
+                        rejectedCreates.incrementAndGet();
+                    }
+                    String reviewId = RESTAURANT_ID + ":" + author.getId();
+                    for (int rating = 0; rating < RATINGS_PER_THREAD; rating++) {
+                        try {
+                            reviewService.updateReview(author, RESTAURANT_ID, reviewId,
+                                    reviewRequest(randomRating()));
+                        } catch (OptimisticLockingFailureException | ResourceNotFoundException e) {
+                            // Out of retries, or the racing create has not landed yet.
+                        }
+                    }
+                    return null;
+                }));
+            }
+        }
+
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        Restaurant result = store.read();
+        long storedRatingSum = reviews.ratingSum();
+        assertThat(createdReviews.get()).isEqualTo(REVIEWERS);
+        assertThat(rejectedCreates.get()).isEqualTo(REVIEWERS * (THREADS_PER_REVIEWER - 1));
+        assertThat(reviews.count()).isEqualTo(REVIEWERS);
+        assertThat(result.getRatingCount()).isEqualTo(REVIEWERS);
+        assertThat(result.getRatingSum()).isEqualTo(storedRatingSum);
+        assertThat(result.getAverageRating()).isEqualTo((float) storedRatingSum / REVIEWERS);
+        assertThat(successfulUpdates.get() + exhaustedUpdates.get()).isEqualTo(UPDATERS * WRITES_PER_UPDATER);
+        assertThat(store.fullWrites()).isEqualTo(successfulUpdates.get());
+        assertThat(result.getName()).startsWith("name-");
+    }
+
+    private static int randomRating() {
+        return ThreadLocalRandom.current().nextInt(1, 6);
+    }
+
+    private static ReviewCreateUpdateRequest reviewRequest(int rating) {
+        return ReviewCreateUpdateRequest.builder()
+                .content("Rated " + rating)
+                .rating(rating)
+                .photoIds(List.of())
+                .build();
+    }
+
+    private RestaurantCreateUpdateRequest updateRequest(String name) {
+        return RestaurantCreateUpdateRequest.builder()
+                .name(name)
+                .cuisineType("Italian")
+                .contactInformation("contact@restaurant.com")
+                .address(Address.builder().city("London").postalCode("SW1A 1AA").country("UK").build())
+                .photoIds(List.of("photo.png"))
+                .build();
+    }
+
+    private static final class VersionedRestaurantStore {
+        private Restaurant current = Restaurant.builder()
+                .id(RESTAURANT_ID)
+                .name("initial")
+                .ratingSum(0L)
+                .ratingCount(0)
+                .build();
+        private long sequenceNumber;
+        private int fullWrites;
+
+        synchronized Restaurant read() {
+            return copy(current, sequenceNumber);
+        }
+
+        synchronized void compareAndSet(Restaurant candidate, Collection<String> fields) {
+            if (candidate.getSeqNoPrimaryTerm().sequenceNumber() != sequenceNumber) {
+                throw new OptimisticLockingFailureException("seq_no conflict for " + candidate.getId());
+            }
+            sequenceNumber++;
+            fullWrites++;
+            Restaurant updated = copy(current, sequenceNumber);
+            if (fields.contains("name")) {
+                updated.setName(candidate.getName());
+            }
+            if (fields.contains("cuisineType")) {
+                updated.setCuisineType(candidate.getCuisineType());
+            }
+            if (fields.contains("contactInformation")) {
+                updated.setContactInformation(candidate.getContactInformation());
+            }
+            if (fields.contains("address")) {
+                updated.setAddress(candidate.getAddress());
+                updated.setGeoLocation(candidate.getGeoLocation());
+            }
+            if (fields.contains("photos")) {
+                updated.setPhotos(candidate.getPhotos());
+            }
+            current = updated;
+        }
+
+        /** Replays the rating script's arithmetic. */
+        synchronized void applyRatingChange(Integer removed, Integer added) {
+            sequenceNumber++;
+            if (removed != null) {
+                current.setRatingSum(current.getRatingSum() - removed);
+                current.setRatingCount(current.getRatingCount() - 1);
+            }
+            if (added != null) {
+                current.setRatingSum(current.getRatingSum() + added);
+                current.setRatingCount(current.getRatingCount() + 1);
+            }
+            current.setAverageRating(current.getRatingCount() == 0
+                    ? 0f
+                    : (float) current.getRatingSum() / current.getRatingCount());
+        }
+
+        synchronized int fullWrites() {
+            return fullWrites;
+        }
+
+        private static Restaurant copy(Restaurant source, long sequenceNumber) {
+            return Restaurant.builder()
+                    .id(source.getId())
+                    .name(source.getName())
+                    .cuisineType(source.getCuisineType())
+                    .contactInformation(source.getContactInformation())
+                    .address(source.getAddress())
+                    .geoLocation(source.getGeoLocation())
+                    .photos(source.getPhotos())
+                    .ratingSum(source.getRatingSum())
+                    .ratingCount(source.getRatingCount())
+                    .averageRating(source.getAverageRating())
+                    .seqNoPrimaryTerm(new SeqNoPrimaryTerm(sequenceNumber, 1))
+                    .build();
+        }
+    }
+
+    private static final class VersionedReviewStore {
+        private final Map<String, Review> reviews = new HashMap<>();
+        private long sequenceNumber;
+
+        synchronized boolean existsBy(String userId) {
+            return reviews.values().stream().anyMatch(review -> review.getWrittenBy().getId().equals(userId));
+        }
+
+        synchronized Optional<Review> read(String id) {
+            return Optional.ofNullable(reviews.get(id)).map(VersionedReviewStore::copy);
+        }
+
+        synchronized void create(Review review) {
+            if (reviews.containsKey(review.getId())) {
+                throw new DuplicateKeyException("Review already exists: " + review.getId());
+            }
+            review.setSeqNoPrimaryTerm(new SeqNoPrimaryTerm(++sequenceNumber, 1));
+            reviews.put(review.getId(), copy(review));
+        }
+
+        synchronized void compareAndSet(Review candidate, Collection<String> fields) {
+            Review current = reviews.get(candidate.getId());
+            if (current.getSeqNoPrimaryTerm().sequenceNumber() != candidate.getSeqNoPrimaryTerm().sequenceNumber()) {
+                throw new OptimisticLockingFailureException("seq_no conflict for " + candidate.getId());
+            }
+            Review updated = copy(current);
+            if (fields.contains("rating")) {
+                updated.setRating(candidate.getRating());
+            }
+            if (fields.contains("content")) {
+                updated.setContent(candidate.getContent());
+            }
+            updated.setSeqNoPrimaryTerm(new SeqNoPrimaryTerm(++sequenceNumber, 1));
+            reviews.put(updated.getId(), updated);
+        }
+
+        synchronized int count() {
+            return reviews.size();
+        }
+
+        synchronized long ratingSum() {
+            return reviews.values().stream().mapToLong(Review::getRating).sum();
+        }
+
+        private static Review copy(Review source) {
+            return Review.builder()
+                    .id(source.getId())
+                    .restaurantId(source.getRestaurantId())
+                    .content(source.getContent())
+                    .rating(source.getRating())
+                    .photos(source.getPhotos())
+                    .datePosted(source.getDatePosted())
+                    .lastEdited(source.getLastEdited())
+                    .writtenBy(source.getWrittenBy())
+                    .seqNoPrimaryTerm(source.getSeqNoPrimaryTerm())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.restaurant.services.impl;
+
+import com.example.restaurant.domain.entities.Restaurant;
+import com.example.restaurant.domain.entities.Review;
+import com.example.restaurant.mappers.RestaurantMapper;
+import com.example.restaurant.mappers.ReviewMapper;
+import com.example.restaurant.repositories.RestaurantRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class RestaurantExportServiceImplTest {
+    private final RestaurantRepository restaurantRepository = mock(RestaurantRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private RestaurantExportServiceImpl exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new RestaurantExportServiceImpl(restaurantRepository,
+                Mappers.getMapper(RestaurantMapper.class), Mappers.getMapper(ReviewMapper.class),
+                objectMapper, 2, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void writesOneLinePerRestaurantWithItsReviews() throws Exception {
+        doAnswer(invocation -> {
+            BiConsumer<List<Restaurant>, Iterator<Review>> pageConsumer = invocation.getArgument(2);
+            pageConsumer.accept(List.of(restaurant("a"), restaurant("b")),
+                    List.of(review("a", 5), review("a", 3)).iterator());
+            pageConsumer.accept(List.of(restaurant("c")), List.of(review("c", 4)).iterator());
+            return null;
+        }).when(restaurantRepository).forEachPage(anyInt(), eq(true), any());
+
+        List<JsonNode> lines = export(true);
+
+        assertThat(lines).extracting(line -> line.get("id").asText()).containsExactly("a", "b", "c");
+        assertThat(lines.get(0).get("name").asText()).isEqualTo("Restaurant a");
+        assertThat(lines.get(0).get("reviews")).hasSize(2);
+        assertThat(lines.get(1).get("reviews")).isEmpty();
+        assertThat(lines.get(2).get("reviews").get(0).get("rating").asInt()).isEqualTo(4);
+    }
+
+    @Test
+    void leavesOutReviewsWhenNotRequested() throws Exception {
+        doAnswer(invocation -> {
+            BiConsumer<List<Restaurant>, Iterator<Review>> pageConsumer = invocation.getArgument(2);
+            pageConsumer.accept(List.of(restaurant("a"), restaurant("b")), Collections.emptyIterator());
+            pageConsumer.accept(List.of(restaurant("c")), Collections.emptyIterator());
+            return null;
+        }).when(restaurantRepository).forEachPage(anyInt(), eq(false), any());
+
+        List<JsonNode> lines = export(false);
+
+        assertThat(lines).hasSize(3).allMatch(line -> !line.has("reviews"));
+    }
+
+    private List<JsonNode> export(boolean includeReviews) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = exportService.exportRestaurants(out, includeReviews);
+        String ndjson = out.toString(StandardCharsets.UTF_8);
+
+        assertThat(exported).isEqualTo(3);
+        assertThat(ndjson).endsWith("\n");
+        return ndjson.lines().map(line -> {
+            try {
+                return objectMapper.readTree(line);
+            } catch (Exception e) {
+                throw new AssertionError(line, e);
+            }
+        }).toList();
+    }
+
+    private static Restaurant restaurant(String id) {
+        return Restaurant.builder().id(id).name("Restaurant " + id).build();
+    }
+
+    private static Review review(String restaurantId, int rating) {
+        return Review.builder().restaurantId(restaurantId).rating(rating).build();
+    }
+}
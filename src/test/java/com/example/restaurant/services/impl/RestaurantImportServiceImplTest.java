@@ -0,0 +1,114 @@
+package com.example.restaurant.services.impl;
+
+import com.example.restaurant.domain.GeoLocation;
+import com.example.restaurant.domain.RestaurantImportError;
+import com.example.restaurant.domain.RestaurantImportResult;
+import com.example.restaurant.domain.entities.Restaurant;
+import com.example.restaurant.mappers.RestaurantMapper;
+import com.example.restaurant.repositories.RestaurantRepository;
+import com.example.restaurant.services.GeoLocationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RestaurantImportServiceImplTest {
+    private static final String VALID = """
+            {"name":"%s","cuisineType":"Italian","contactInformation":"020 7946 0000",\
+            "address":{"streetNumber":"1","streetName":"High Street","city":"London",\
+            "state":"Greater London","postalCode":"SW1A 1AA","country":"UK"},"photoIds":["photo.png"]}""";
+
+    private final RestaurantRepository restaurantRepository = mock(RestaurantRepository.class);
+    private final List<List<Restaurant>> batches = new ArrayList<>();
+    private RestaurantImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        when(restaurantRepository.suspendRefresh()).thenReturn("1s");
+        when(restaurantRepository.bulkIndex(any())).thenAnswer(invocation -> {
+            List<Restaurant> batch = invocation.getArgument(0);
+            batches.add(batch);
+            return batch.stream()
+                    .filter(restaurant -> restaurant.getName().equals("Rejected"))
+                    .collect(Collectors.toMap(Restaurant::getId, restaurant -> "mapper_parsing_exception"));
+        });
+        GeoLocationService geoLocationService = mock(GeoLocationService.class);
+        when(geoLocationService.geoLocate(any()))
+                .thenReturn(GeoLocation.builder().latitude(51.5).longitude(-0.14).build());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        importService = new RestaurantImportServiceImpl(restaurantRepository, geoLocationService,
+                Mappers.getMapper(RestaurantMapper.class),
+                new RestaurantSearchCache(100, Duration.ofMinutes(1), meterRegistry),
+                new ObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator(),
+                2, 4, meterRegistry);
+    }
+
+    @Test
+    void reportsTheLowestFailingLinesWhenErrorsAreCapped() {
+        StringBuilder ndjson = new StringBuilder(VALID.formatted("Rejected")).append('\n');
+        for (int i = 0; i < RestaurantImportServiceImpl.MAX_REPORTED_ERRORS; i++) {
+            ndjson.append("{not json\n");
+        }
+        ndjson.append(VALID.formatted("Last")).append('\n');
+
+        RestaurantImportResult result = importService.importRestaurants(
+                new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getFailed()).isEqualTo(RestaurantImportServiceImpl.MAX_REPORTED_ERRORS + 1);
+        assertThat(result.getErrors()).hasSize(RestaurantImportServiceImpl.MAX_REPORTED_ERRORS);
+        assertThat(result.getErrors().get(0).getLine()).isEqualTo(1);
+        assertThat(result.getErrors().get(0).getMessage()).isEqualTo("mapper_parsing_exception");
+        assertThat(result.getErrors()).extracting(RestaurantImportError::getLine)
+                .isSorted()
+                .last().isEqualTo((long) RestaurantImportServiceImpl.MAX_REPORTED_ERRORS);
+    }
+
+    @Test
+    void importsInBatchesAndReportsFailuresByLine() {
+        String ndjson = String.join("\n",
+                VALID.formatted("One"),
+                "{not json",
+                VALID.formatted("Two"),
+                "",
+                VALID.formatted("Rejected"),
+                VALID.formatted(""),
+                VALID.formatted("No photos").replace(",\"photoIds\":[\"photo.png\"]", "")) + "\n";
+
+        RestaurantImportResult result = importService.importRestaurants(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(4);
+        assertThat(result.getErrors()).extracting(RestaurantImportError::getLine).containsExactly(2L, 5L, 6L, 7L);
+        assertThat(result.getErrors().get(1).getMessage()).isEqualTo("mapper_parsing_exception");
+        assertThat(result.getErrors().get(2).getMessage()).contains("name: Restaurant name is required");
+        assertThat(result.getErrors().get(3).getMessage())
+                .isEqualTo("Validation failed: photoIds: At least one photo ID is required");
+        assertThat(batches).extracting(List::size).containsExactly(2, 1);
+        assertThat(batches.getFirst().getFirst().getGeoLocation().getLat()).isEqualTo(51.5);
+    }
+
+    @Test
+    void restoresRefreshAfterTheLoad() {
+        importService.importRestaurants(new ByteArrayInputStream(VALID.formatted("One").getBytes(StandardCharsets.UTF_8)));
+
+        var order = inOrder(restaurantRepository);
+        order.verify(restaurantRepository).suspendRefresh();
+        order.verify(restaurantRepository).bulkIndex(any());
+        order.verify(restaurantRepository).resumeRefresh("1s");
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.restaurant.services.impl;
+
+import com.example.restaurant.domain.entities.Restaurant;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RestaurantLookupCoalescerTest {
+    private static final String RESTAURANT_ID = "trending";
+    private static final int CALLERS = 32;
+
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    @Test
+    void concurrentLookupsShareOneFetch() throws Exception {
+        RestaurantLookupCoalescer coalescer = coalescer(Duration.ZERO);
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFetch = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+        Future<Optional<Restaurant>> leader = executor.submit(() -> coalescer.get(RESTAURANT_ID, id -> {
+            fetchStarted.countDown();
+            await(releaseFetch);
+            return fetch(id);
+        }));
+        fetchStarted.await(5, TimeUnit.SECONDS);
+
+        List<Future<Optional<Restaurant>>> followers = new ArrayList<>();
+        for (int caller = 1; caller < CALLERS; caller++) {
+            followers.add(executor.submit(() -> coalescer.get(RESTAURANT_ID, this::fetch)));
+        }
+        Thread.sleep(100);
+        releaseFetch.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isPresent();
+        for (Future<Optional<Restaurant>> follower : followers) {
+            assertThat(follower.get(5, TimeUnit.SECONDS)).map(Restaurant::getId).contains(RESTAURANT_ID);
+        }
+        executor.shutdown();
+        assertThat(fetches).hasValue(1);
+    }
+
+    @Test
+    void servesCachedCopyUntilInvalidated() {
+        RestaurantLookupCoalescer coalescer = coalescer(Duration.ofMinutes(1));
+
+        coalescer.get(RESTAURANT_ID, this::fetch);
+        coalescer.get(RESTAURANT_ID, this::fetch);
+        assertThat(fetches).hasValue(1);
+
+        coalescer.invalidate(RESTAURANT_ID);
+        coalescer.get(RESTAURANT_ID, this::fetch);
+        assertThat(fetches).hasValue(2);
+    }
+
+    @Test
+    void failedFetchIsNotCached() {
+        RestaurantLookupCoalescer coalescer = coalescer(Duration.ofMinutes(1));
+
+        assertThatThrownBy(() -> coalescer.get(RESTAURANT_ID, id -> {
+            throw new IllegalStateException("elasticsearch unavailable");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(coalescer.get(RESTAURANT_ID, this::fetch)).isPresent();
+        assertThat(fetches).hasValue(1);
+    }
+
+    private RestaurantLookupCoalescer coalescer(Duration ttl) {
+        return new RestaurantLookupCoalescer(ttl, 100, new SimpleMeterRegistry());
+    }
+
+    private Optional<Restaurant> fetch(String id) {
+        fetches.incrementAndGet();
+        return Optional.of(Restaurant.builder().id(id).build());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.restaurant.services.impl;
+
+import com.example.restaurant.domain.HitCount;
+import com.example.restaurant.domain.RestaurantSearchCriteria;
+import com.example.restaurant.domain.RestaurantSearchResult;
+import com.example.restaurant.domain.entities.Restaurant;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHitSupport;
+import org.springframework.data.elasticsearch.core.SearchHitsImpl;
+import org.springframework.data.elasticsearch.core.SearchPage;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+import org.springframework.data.elasticsearch.core.geo.GeoPoint;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RestaurantSearchCacheTest {
+    private static final RestaurantSearchCriteria PIZZA = RestaurantSearchCriteria.builder()
+            .query("pizza")
+            .build();
+    private static final RestaurantSearchCriteria TOP_RATED = RestaurantSearchCriteria.builder()
+            .minRating(4f)
+            .build();
+    private static final RestaurantSearchCriteria CENTRAL_LONDON = RestaurantSearchCriteria.builder()
+            .latitude(51.5074f)
+            .longitude(-0.1278f)
+            .radius(2f)
+            .build();
+
+    private final RestaurantSearchCache cache =
+            new RestaurantSearchCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+    private final AtomicInteger searches = new AtomicInteger();
+
+    @Test
+    void normalizesQueryText() {
+        search(PIZZA, PageRequest.of(0, 20), "a");
+        search(RestaurantSearchCriteria.builder().query("  PIZZA ").build(), PageRequest.of(0, 20), "a");
+
+        assertThat(searches).hasValue(1);
+    }
+
+    @Test
+    void evictsEveryPageOfCriteriaContainingTheRestaurant() {
+        search(PIZZA, PageRequest.of(0, 1), "a");
+        search(PIZZA, PageRequest.of(1, 1), "b");
+        search(CENTRAL_LONDON, PageRequest.of(0, 1), "c");
+
+        cache.restaurantChanged("a", null, null);
+
+        search(PIZZA, PageRequest.of(1, 1), "b");
+        search(CENTRAL_LONDON, PageRequest.of(0, 1), "c");
+        assertThat(searches).hasValue(4);
+    }
+
+    @Test
+    void forgetsRestaurantsOfPagesThatWereEvicted() {
+        search(PIZZA, PageRequest.of(0, 1), "a");
+        cache.restaurantChanged("a", null, null);
+        search(PIZZA, PageRequest.of(0, 1), "b");
+
+        cache.restaurantChanged("a", null, null);
+
+        search(PIZZA, PageRequest.of(0, 1), "b");
+        assertThat(searches).hasValue(2);
+    }
+
+    @Test
+    void keepsRadiusResultsWhenChangedRestaurantIsFarAway() {
+        search(CENTRAL_LONDON, PageRequest.of(0, 20), "c");
+        Restaurant manchester = Restaurant.builder()
+                .averageRating(0f)
+                .geoLocation(new GeoPoint(53.4808, -2.2426))
+                .build();
+
+        cache.restaurantChanged("m", null, manchester);
+
+        search(CENTRAL_LONDON, PageRequest.of(0, 20), "c");
+        assertThat(searches).hasValue(1);
+    }
+
+    @Test
+    void ratingChangeEvictsFacetedResults() {
+        RestaurantSearchCriteria facetedPizza = RestaurantSearchCriteria.builder()
+                .query("pizza")
+                .facets(true)
+                .build();
+        search(facetedPizza, PageRequest.of(0, 20), "a");
+
+        cache.ratingChanged("x");
+
+        search(facetedPizza, PageRequest.of(0, 20), "a");
+        assertThat(searches).hasValue(2);
+    }
+
+    @Test
+    void ratingChangeOnlyEvictsMinimumRatingCriteria() {
+        search(TOP_RATED, PageRequest.of(0, 20), "a");
+        search(PIZZA, PageRequest.of(0, 20), "b");
+
+        cache.ratingChanged("x");
+
+        search(TOP_RATED, PageRequest.of(0, 20), "a");
+        search(PIZZA, PageRequest.of(0, 20), "b");
+        assertThat(searches).hasValue(3);
+    }
+
+    @Test
+    void hitCountModeIsPartOfTheKey() {
+        search(PIZZA, PageRequest.of(0, 20), "a");
+        search(RestaurantSearchCriteria.builder().query("pizza").hitCount(HitCount.NONE).build(),
+                PageRequest.of(0, 20), "a");
+
+        assertThat(searches).hasValue(2);
+    }
+
+    private RestaurantSearchResult search(RestaurantSearchCriteria criteria, Pageable pageable, String... ids) {
+        return cache.get(criteria, pageable, () -> {
+            searches.incrementAndGet();
+            return page(pageable, ids);
+        });
+    }
+
+    private static RestaurantSearchResult page(Pageable pageable, String... ids) {
+        List<SearchHit<Restaurant>> hits = Arrays.stream(ids)
+                .map(id -> new SearchHit<>("restaurants", id, null, 1f, null, Map.of(), Map.of(), null, null,
+                        List.of(), Restaurant.builder().id(id).build()))
+                .toList();
+        SearchPage<Restaurant> page = SearchHitSupport.searchPageFor(new SearchHitsImpl<>(hits.size(),
+                TotalHitsRelation.EQUAL_TO, 1f, null, null, null, hits, null, null, null), pageable);
+        return RestaurantSearchResult.builder().page(page).facets(Map.of()).build();
+    }
+}
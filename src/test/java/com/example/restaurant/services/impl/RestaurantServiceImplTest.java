@@ -0,0 +1,176 @@
+package com.example.restaurant.services.impl;
+
+import com.example.restaurant.domain.GeoLocation;
+import com.example.restaurant.domain.RestaurantCreateUpdateRequest;
+import com.example.restaurant.domain.RestaurantSearchCriteria;
+import com.example.restaurant.domain.RestaurantSearchResult;
+import com.example.restaurant.domain.entities.Address;
+import com.example.restaurant.domain.entities.Photo;
+import com.example.restaurant.domain.entities.Restaurant;
+import com.example.restaurant.repositories.RestaurantRepository;
+import com.example.restaurant.repositories.ReviewRepository;
+import com.example.restaurant.services.GeoLocationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.SearchHitSupport;
+import org.springframework.data.elasticsearch.core.SearchHitsImpl;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+import org.springframework.data.elasticsearch.core.geo.GeoPoint;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RestaurantServiceImplTest {
+    private static final String RESTAURANT_ID = "restaurant";
+    private static final LocalDateTime UPLOADED = LocalDateTime.of(2024, 1, 15, 10, 30);
+    private static final Address ADDRESS = address("London", "SW1A 1AA");
+
+    private final RestaurantRepository restaurantRepository = mock(RestaurantRepository.class);
+    private final GeoLocationService geoLocationService = mock(GeoLocationService.class);
+    private RestaurantServiceImpl restaurantService;
+
+    @BeforeEach
+    void setUp() {
+        when(restaurantRepository.findById(RESTAURANT_ID)).thenAnswer(invocation -> Optional.of(stored()));
+        when(geoLocationService.geoLocate(any()))
+                .thenReturn(GeoLocation.builder().latitude(53.48).longitude(-2.24).build());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        restaurantService = new RestaurantServiceImpl(restaurantRepository, mock(ReviewRepository.class),
+                geoLocationService,
+                new RestaurantSearchCache(100, Duration.ofMinutes(1), meterRegistry),
+                new RestaurantLookupCoalescer(Duration.ofSeconds(2), 100, meterRegistry));
+    }
+
+    @Test
+    void suggestionsTrimThePrefixAndCapTheSize() {
+        assertThat(restaurantService.suggestRestaurants("  ", 10)).isEmpty();
+        verify(restaurantRepository, never()).suggest(any(), anyInt());
+
+        restaurantService.suggestRestaurants(" piz ", 500);
+
+        verify(restaurantRepository).suggest("piz", 20);
+    }
+
+    @Test
+    void openNowIsResolvedOnACopyOfTheCriteria() {
+        ReflectionTestUtils.setField(restaurantService, "searchTimeZone", ZoneId.of("Europe/London"));
+        RestaurantSearchCriteria criteria = RestaurantSearchCriteria.builder().openNow(true).build();
+        when(restaurantRepository.search(any(), any())).thenReturn(RestaurantSearchResult.builder()
+                .page(SearchHitSupport.searchPageFor(new SearchHitsImpl<Restaurant>(0, TotalHitsRelation.EQUAL_TO,
+                        0f, null, null, null, List.of(), null, null, null), PageRequest.of(0, 20)))
+                .facets(Map.of())
+                .build());
+
+        restaurantService.searchRestaurants(criteria, PageRequest.of(0, 20));
+
+        assertThat(criteria.getOpenAt()).isNull();
+        verify(restaurantRepository).search(argThat(resolved -> resolved.getOpenAt() != null),
+                eq(PageRequest.of(0, 20)));
+    }
+
+    @Test
+    void writesOnlyChangedFieldsAndKeepsPhotoMetadata() {
+        Restaurant updated = restaurantService.updateRestaurant(RESTAURANT_ID, request(ADDRESS, "020 7946 0000",
+                List.of("photo.png", "new.png")));
+
+        verify(restaurantRepository).updateFields(any(Restaurant.class),
+                eq(Set.of("contactInformation", "photos")));
+        verify(geoLocationService, never()).geoLocate(any());
+        assertThat(updated.getPhotos().get(0).getUploadDate()).isEqualTo(UPLOADED);
+        assertThat(updated.getPhotos().get(1).getUploadDate()).isAfter(UPLOADED);
+    }
+
+    @Test
+    void geocodesAgainWhenTheAddressChanges() {
+        Address moved = address("Manchester", "M1 1AA");
+
+        Restaurant updated = restaurantService.updateRestaurant(RESTAURANT_ID, request(moved, "contact",
+                List.of("photo.png")));
+
+        verify(restaurantRepository).updateFields(any(Restaurant.class),
+                eq(Set.of("address", "geoLocation")));
+        assertThat(updated.getGeoLocation().getLat()).isEqualTo(53.48);
+    }
+
+    @Test
+    void skipsTheWriteWhenNothingChanged() {
+        restaurantService.updateRestaurant(RESTAURANT_ID, request(ADDRESS, "contact", List.of("photo.png")));
+
+        verify(restaurantRepository, never()).updateFields(any(), any());
+        verify(restaurantRepository, never()).save(any());
+    }
+
+    @Test
+    void patchWritesOnlySuppliedFieldsThatDiffer() {
+        Restaurant patched = restaurantService.patchRestaurant(RESTAURANT_ID, RestaurantCreateUpdateRequest.builder()
+                .cuisineType("Italian")
+                .contactInformation("020 7946 0000")
+                .build());
+
+        verify(restaurantRepository).updateFields(any(Restaurant.class), eq(Set.of("contactInformation")));
+        assertThat(patched.getName()).isEqualTo("Trattoria");
+        assertThat(patched.getAddress()).isEqualTo(ADDRESS);
+        assertThat(patched.getPhotos()).extracting(Photo::getUrl).containsExactly("photo.png");
+    }
+
+    @Test
+    void emptyPatchLeavesTheRestaurantUntouched() {
+        restaurantService.patchRestaurant(RESTAURANT_ID, new RestaurantCreateUpdateRequest());
+
+        verify(restaurantRepository, never()).updateFields(any(), any());
+    }
+
+    private static RestaurantCreateUpdateRequest request(Address address, String contact, List<String> photoIds) {
+        return RestaurantCreateUpdateRequest.builder()
+                .name("Trattoria")
+                .cuisineType("Italian")
+                .contactInformation(contact)
+                .address(address)
+                .photoIds(photoIds)
+                .build();
+    }
+
+    private static Address address(String city, String postalCode) {
+        return Address.builder()
+                .streetNumber("1")
+                .streetName("High Street")
+                .city(city)
+                .postalCode(postalCode)
+                .country("UK")
+                .build();
+    }
+
+    private static Restaurant stored() {
+        List<Photo> photos = new ArrayList<>();
+        photos.add(Photo.builder().url("photo.png").uploadDate(UPLOADED).build());
+        return Restaurant.builder()
+                .id(RESTAURANT_ID)
+                .name("Trattoria")
+                .cuisineType("Italian")
+                .contactInformation("contact")
+                .address(address("London", "SW1A 1AA"))
+                .geoLocation(new GeoPoint(51.5, -0.14))
+                .photos(photos)
+                .seqNoPrimaryTerm(new SeqNoPrimaryTerm(3, 1))
+                .build();
+    }
+}
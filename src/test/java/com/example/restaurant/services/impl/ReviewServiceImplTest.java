@@ -0,0 +1,205 @@
+package com.example.restaurant.services.impl;
+
+import com.example.restaurant.domain.ReviewCreateUpdateRequest;
+import com.example.restaurant.domain.entities.Photo;
+import com.example.restaurant.domain.entities.Review;
+import com.example.restaurant.domain.entities.User;
+import com.example.restaurant.exceptions.RestaurantNotFoundException;
+import com.example.restaurant.exceptions.ReviewNotAllowedException;
+import com.example.restaurant.repositories.RestaurantRepository;
+import com.example.restaurant.repositories.ReviewRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReviewServiceImplTest {
+    private static final String RESTAURANT_ID = "restaurant";
+    private static final String REVIEW_ID = "review";
+    private static final User AUTHOR = new User("author", "author", "Ada", "Lovelace");
+
+    private final RestaurantRepository restaurantRepository = mock(RestaurantRepository.class);
+    private final ReviewRepository reviewRepository = mock(ReviewRepository.class);
+    private RatingAggregator ratingAggregator;
+    private ReviewServiceImpl reviewService;
+
+    @BeforeEach
+    void setUp() {
+        when(restaurantRepository.existsById(RESTAURANT_ID)).thenReturn(true);
+        when(reviewRepository.findById(REVIEW_ID)).thenAnswer(invocation -> Optional.of(stored()));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ratingAggregator = new RatingAggregator(restaurantRepository, reviewRepository,
+                new RestaurantSearchCache(100, Duration.ofMinutes(1), meterRegistry),
+                new RestaurantLookupCoalescer(Duration.ofSeconds(2), 100, meterRegistry),
+                meterRegistry);
+        reviewService = new ReviewServiceImpl(restaurantRepository, reviewRepository, ratingAggregator);
+    }
+
+    @Test
+    void createStoresTheReviewInItsOwnIndexAndAddsItsRating() {
+        Review created = reviewService.createReview(AUTHOR, RESTAURANT_ID,
+                ReviewCreateUpdateRequest.builder().content("Great").rating(5).photoIds(List.of()).build());
+
+        verify(reviewRepository).create(created);
+        assertThat(created.getRestaurantId()).isEqualTo(RESTAURANT_ID);
+        verify(restaurantRepository).applyRatingChange(RESTAURANT_ID, null, 5);
+    }
+
+    @Test
+    void transientAggregateFailureIsRetried() {
+        doThrow(new DataAccessResourceFailureException("timeout")).doNothing()
+                .when(restaurantRepository).applyRatingChange(RESTAURANT_ID, null, 5);
+
+        reviewService.createReview(AUTHOR, RESTAURANT_ID,
+                ReviewCreateUpdateRequest.builder().content("Great").rating(5).photoIds(List.of()).build());
+
+        verify(restaurantRepository, times(2)).applyRatingChange(RESTAURANT_ID, null, 5);
+        assertThat(ratingAggregator.isStale(RESTAURANT_ID)).isFalse();
+    }
+
+    @Test
+    void persistentAggregateFailureIsRepairedFromTheReviews() {
+        doThrow(new DataAccessResourceFailureException("unavailable"))
+                .when(restaurantRepository).applyRatingChange(RESTAURANT_ID, null, 5);
+        when(reviewRepository.countByRating(RESTAURANT_ID)).thenReturn(Map.of(4, 1L, 5, 1L));
+
+        reviewService.createReview(AUTHOR, RESTAURANT_ID,
+                ReviewCreateUpdateRequest.builder().content("Great").rating(5).photoIds(List.of()).build());
+
+        verify(restaurantRepository, times(RatingAggregator.MAX_ATTEMPTS)).applyRatingChange(RESTAURANT_ID, null, 5);
+        assertThat(ratingAggregator.isStale(RESTAURANT_ID)).isTrue();
+
+        ratingAggregator.reaggregateStale();
+
+        verify(restaurantRepository).replaceRatingAggregates(RESTAURANT_ID, Map.of(4, 1L, 5, 1L));
+        assertThat(ratingAggregator.isStale(RESTAURANT_ID)).isFalse();
+    }
+
+    @Test
+    void reviewOfARestaurantDeletedMidWriteIsCleanedUp() {
+        doThrow(new RestaurantNotFoundException("gone"))
+                .when(restaurantRepository).applyRatingChange(RESTAURANT_ID, null, 5);
+
+        assertThatThrownBy(() -> reviewService.createReview(AUTHOR, RESTAURANT_ID,
+                ReviewCreateUpdateRequest.builder().content("Great").rating(5).photoIds(List.of()).build()))
+                .isInstanceOf(RestaurantNotFoundException.class);
+
+        when(restaurantRepository.existsById(RESTAURANT_ID)).thenReturn(false);
+        ratingAggregator.reaggregateStale();
+
+        verify(reviewRepository).deleteByRestaurantId(RESTAURANT_ID);
+        assertThat(ratingAggregator.isStale(RESTAURANT_ID)).isFalse();
+    }
+
+    @Test
+    void deleteRemovesTheRatingOnlyWhenTheReviewWasDeleted() {
+        when(reviewRepository.deleteIfUnchanged(any(Review.class))).thenReturn(true, false);
+
+        reviewService.deleteReview(RESTAURANT_ID, REVIEW_ID);
+        reviewService.deleteReview(RESTAURANT_ID, REVIEW_ID);
+
+        verify(restaurantRepository).applyRatingChange(RESTAURANT_ID, 4, null);
+    }
+
+    @Test
+    void concurrentDuplicateCreateIsRejectedWithoutTouchingAggregates() {
+        doThrow(new DuplicateKeyException("exists")).when(reviewRepository).create(any(Review.class));
+
+        assertThatThrownBy(() -> reviewService.createReview(AUTHOR, RESTAURANT_ID,
+                ReviewCreateUpdateRequest.builder().content("Again").rating(5).photoIds(List.of()).build()))
+                .isInstanceOf(ReviewNotAllowedException.class)
+                .hasMessage("User has already reviewed this restaurant");
+        verify(reviewRepository).create(argThat(review -> review.getId().equals(RESTAURANT_ID + ":author")));
+        verify(restaurantRepository, never()).applyRatingChange(anyString(), any(), any());
+    }
+
+    @Test
+    void reviewSortsBreakTiesOnId() {
+        reviewService.listReviews(RESTAURANT_ID, PageRequest.of(1, 10, Sort.by(Sort.Order.asc("rating"))));
+
+        verify(reviewRepository).findByRestaurantId(RESTAURANT_ID,
+                PageRequest.of(1, 10, Sort.by(Sort.Order.asc("rating"), Sort.Order.asc("id"))));
+    }
+
+    @Test
+    void unsortableReviewFieldsFallBackToDatePosted() {
+        reviewService.listReviews(RESTAURANT_ID, PageRequest.of(0, 10, Sort.by(Sort.Order.asc("content"))));
+        reviewService.listReviews(RESTAURANT_ID, PageRequest.of(0, 10));
+
+        verify(reviewRepository).findByRestaurantId(RESTAURANT_ID,
+                PageRequest.of(0, 10, Sort.by(Sort.Order.asc("datePosted"), Sort.Order.asc("id"))));
+        verify(reviewRepository).findByRestaurantId(RESTAURANT_ID,
+                PageRequest.of(0, 10, Sort.by(Sort.Order.desc("datePosted"), Sort.Order.asc("id"))));
+    }
+
+    @Test
+    void patchingContentLeavesRatingAggregatesAlone() {
+        Review patched = reviewService.patchReview(AUTHOR, RESTAURANT_ID, REVIEW_ID,
+                ReviewCreateUpdateRequest.builder().content("Even better the second time").build());
+
+        verify(reviewRepository).updateFields(any(Review.class), eq(Set.of("content", "lastEdited")));
+        verify(restaurantRepository, never()).applyRatingChange(anyString(), any(), any());
+        assertThat(patched.getRating()).isEqualTo(4);
+        assertThat(patched.getPhotos()).extracting(Photo::getUrl).containsExactly("dish.png");
+    }
+
+    @Test
+    void patchingRatingMovesTheRestaurantAggregates() {
+        reviewService.patchReview(AUTHOR, RESTAURANT_ID, REVIEW_ID,
+                ReviewCreateUpdateRequest.builder().rating(2).build());
+
+        verify(reviewRepository).updateFields(any(Review.class), eq(Set.of("rating", "lastEdited")));
+        verify(restaurantRepository).applyRatingChange(RESTAURANT_ID, 4, 2);
+    }
+
+    @Test
+    void unchangedPatchSkipsTheWrite() {
+        reviewService.patchReview(AUTHOR, RESTAURANT_ID, REVIEW_ID,
+                ReviewCreateUpdateRequest.builder().rating(4).build());
+
+        verify(reviewRepository, never()).updateFields(any(), any());
+        verify(restaurantRepository, never()).applyRatingChange(anyString(), anyInt(), anyInt());
+    }
+
+    private static Review stored() {
+        LocalDateTime posted = LocalDateTime.now().minusHours(1);
+        List<Photo> photos = new ArrayList<>();
+        photos.add(Photo.builder().url("dish.png").uploadDate(posted).build());
+        return Review.builder()
+                .id(REVIEW_ID)
+                .restaurantId(RESTAURANT_ID)
+                .content("Lovely pasta")
+                .rating(4)
+                .datePosted(posted)
+                .lastEdited(posted)
+                .photos(photos)
+                .writtenBy(AUTHOR)
+                .seqNoPrimaryTerm(new SeqNoPrimaryTerm(5, 1))
+                .build();
+    }
+}
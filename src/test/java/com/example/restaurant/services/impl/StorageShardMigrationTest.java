@@ -0,0 +1,47 @@
+package com.example.restaurant.services.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StorageShardMigrationTest {
+    @TempDir
+    Path storage;
+
+    @Test
+    void fansNamesOutByPrefix() {
+        StorageLayout layout = new StorageLayout(storage.toString(), 2);
+
+        assertThat(layout.resolve("ABcd1234.png")).isEqualTo(storage.resolve("ab/cd/ABcd1234.png"));
+        assertThat(layout.resolve("abc.png")).isEqualTo(storage.resolve("abc.png"));
+    }
+
+    @Test
+    void movesFlatFilesWhileTheyStayLoadable() throws Exception {
+        Files.writeString(storage.resolve("abcd1234.png"), "flat");
+        StorageLayout layout = new StorageLayout(storage.toString(), 2);
+        assertThat(layout.loadAsResource("abcd1234.png")).isPresent();
+
+        int moved = new StorageShardMigration(storage.toString(), 2).migrate();
+
+        assertThat(moved).isEqualTo(1);
+        assertThat(storage.resolve("abcd1234.png")).doesNotExist();
+        assertThat(storage.resolve("ab/cd/abcd1234.png")).hasContent("flat");
+        assertThat(layout.loadAsResource("abcd1234.png")).isPresent();
+    }
+
+    @Test
+    void keepsNewerShardedFile() throws Exception {
+        Files.writeString(storage.resolve("abcd1234.png"), "stale");
+        Files.createDirectories(storage.resolve("ab/cd"));
+        Files.writeString(storage.resolve("ab/cd/abcd1234.png"), "current");
+
+        new StorageShardMigration(storage.toString(), 2).migrate();
+
+        assertThat(storage.resolve("abcd1234.png")).doesNotExist();
+        assertThat(storage.resolve("ab/cd/abcd1234.png")).hasContent("current");
+    }
+}